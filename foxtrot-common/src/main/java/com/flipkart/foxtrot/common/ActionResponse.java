@@ -47,6 +47,8 @@ import lombok.Data;
 public abstract class ActionResponse {
     private final String opcode;
     private boolean fromCache;
+    // Set when a previous response is served while the query is refreshed in the background
+    private boolean stale;
 
     protected ActionResponse(String opcode) {
         this.opcode = opcode;
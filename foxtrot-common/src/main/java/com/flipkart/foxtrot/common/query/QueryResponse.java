@@ -37,17 +37,24 @@ public class QueryResponse extends ActionResponse {
     private String scrollId;
     private boolean moreDataAvailable;
 
+    /**
+     * Ids matched by the query but not present in the data store, so left out of {@link #documents}
+     */
+    private List<String> missingIds;
+
     public QueryResponse() {
         super(Opcodes.QUERY);
     }
 
     @Builder
-    public QueryResponse(List<Document> documents, long totalHits, String scrollId, boolean moreDataAvailable) {
+    public QueryResponse(List<Document> documents, long totalHits, String scrollId, boolean moreDataAvailable,
+                         List<String> missingIds) {
         super(Opcodes.QUERY);
         this.documents = documents;
         this.totalHits = totalHits;
         this.scrollId = scrollId;
         this.moreDataAvailable = moreDataAvailable;
+        this.missingIds = missingIds;
     }
 
     @Override
@@ -0,0 +1,186 @@
+package com.flipkart.foxtrot.core.cache;
+
+import com.flipkart.foxtrot.common.Period;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/***
+ Keeps the closed buckets of time series, keyed on everything in the request except its time window. Buckets are
+ aligned to the period in the default time zone, the same way elasticsearch date histograms are. A request is answered
+ from the cached buckets it fully covers, and only the partial head bucket and the tail after the last cached bucket
+ are loaded.
+ ***/
+@Slf4j
+@Singleton
+public class BucketCache {
+
+    /***
+     Loads buckets, keyed on bucket start, for documents in the given range of the window
+     ***/
+    @FunctionalInterface
+    public interface BucketLoader<V> {
+        /***
+         @param from inclusive start of the range, null if the range starts with the window
+         @param to   exclusive end of the range, null if the range ends with the window
+         ***/
+        NavigableMap<Long, V> load(Long from, Long to);
+    }
+
+    private final BucketCacheConfig config;
+    private final Cache<String, Series> series;
+    private final Cache<String, Boolean> excludedSeries;
+
+    @Inject
+    public BucketCache(BucketCacheConfig config) {
+        this.config = config;
+        this.series = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxSeries())
+                .expireAfterAccess(config.getExpireAfterAccessSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.excludedSeries = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxSeries())
+                .expireAfterWrite(config.getExpireAfterAccessSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /***
+     Remembers a series whose buckets turned out not to add up to the result over the whole window, so that requests
+     for it skip the bucket cache till the exclusion expires
+     ***/
+    public void exclude(String seriesKey) {
+        log.debug("Excluding series: {} from the bucket cache", seriesKey);
+        series.invalidate(seriesKey);
+        excludedSeries.put(seriesKey, Boolean.TRUE);
+    }
+
+    public boolean isExcluded(String seriesKey) {
+        return null != excludedSeries.getIfPresent(seriesKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> NavigableMap<Long, V> fetch(String seriesKey, Period period, Interval window, BucketLoader<V> loader) {
+        final long firstClosed = ceil(period, window.getStartMillis());
+        final long closedUntil = floor(period, Math.min(window.getEndMillis(),
+                System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(config.getClosedBucketLagSeconds())));
+        if (!config.isEnabled() || firstClosed >= closedUntil) {
+            return loader.load(null, null);
+        }
+        final Series cached = series.getIfPresent(seriesKey);
+        if (null == cached || cached.start > firstClosed || cached.end <= firstClosed) {
+            log.debug("Bucket cache miss for series: {}", seriesKey);
+            NavigableMap<Long, V> buckets = loader.load(null, null);
+            store(seriesKey, period, cached, firstClosed, closedUntil, buckets);
+            return buckets;
+        }
+        final long cachedUntil = Math.min(cached.end, closedUntil);
+        log.debug("Bucket cache hit for series: {} till: {}", seriesKey, cachedUntil);
+        NavigableMap<Long, V> buckets = new TreeMap<>();
+        if (window.getStartMillis() < firstClosed) {
+            buckets.putAll(loader.load(null, firstClosed));
+        }
+        buckets.putAll((NavigableMap<Long, V>) cached.buckets.subMap(firstClosed, true, cachedUntil, false));
+        NavigableMap<Long, V> tail = loader.load(cachedUntil, null);
+        buckets.putAll(tail);
+        if (closedUntil > cached.end) {
+            store(seriesKey, period, cached, cached.end, closedUntil, tail);
+        }
+        return buckets;
+    }
+
+    /***
+     Adds the closed buckets in [start, end) to the cached series if they are contiguous with it, replaces the series
+     otherwise
+     ***/
+    private void store(String seriesKey, Period period, Series cached, long start, long end,
+                       NavigableMap<Long, ?> loaded) {
+        TreeMap<Long, Object> buckets = new TreeMap<>(loaded.subMap(start, true, end, false));
+        long seriesStart = start;
+        long seriesEnd = end;
+        if (null != cached && cached.start <= end && cached.end >= start) {
+            buckets.putAll(cached.buckets.headMap(start, false));
+            buckets.putAll(cached.buckets.tailMap(end, true));
+            seriesStart = Math.min(cached.start, start);
+            seriesEnd = Math.max(cached.end, end);
+        }
+        while (buckets.size() > config.getMaxBucketsPerSeries()) {
+            seriesStart = next(period, buckets.pollFirstEntry()
+                    .getKey());
+        }
+        series.put(seriesKey, new Series(seriesStart, seriesEnd, buckets));
+    }
+
+    private static long floor(Period period, long time) {
+        DateTime dateTime = new DateTime(time);
+        switch (period) {
+            case seconds:
+                return dateTime.secondOfMinute()
+                        .roundFloorCopy()
+                        .getMillis();
+            case minutes:
+                return dateTime.minuteOfHour()
+                        .roundFloorCopy()
+                        .getMillis();
+            case days:
+                return dateTime.withTimeAtStartOfDay()
+                        .getMillis();
+            case hours:
+            default:
+                return dateTime.hourOfDay()
+                        .roundFloorCopy()
+                        .getMillis();
+        }
+    }
+
+    private static long ceil(Period period, long time) {
+        long floor = floor(period, time);
+        return floor == time ? time : next(period, floor);
+    }
+
+    private static long next(Period period, long bucketStart) {
+        DateTime dateTime = new DateTime(bucketStart);
+        switch (period) {
+            case seconds:
+                return dateTime.plusSeconds(1)
+                        .getMillis();
+            case minutes:
+                return dateTime.plusMinutes(1)
+                        .getMillis();
+            case days:
+                return dateTime.plusDays(1)
+                        .getMillis();
+            case hours:
+            default:
+                return dateTime.plusHours(1)
+                        .getMillis();
+        }
+    }
+
+    /***
+     Closed buckets covering [start, end). Buckets missing from the map had no documents.
+     ***/
+    private static final class Series {
+        private final long start;
+        private final long end;
+        private final NavigableMap<Long, Object> buckets;
+
+        private Series(long start, long end, NavigableMap<Long, Object> buckets) {
+            this.start = start;
+            this.end = end;
+            this.buckets = buckets;
+        }
+    }
+}
@@ -17,6 +17,9 @@ package com.flipkart.foxtrot.core.cache;
 
 import com.flipkart.foxtrot.common.ActionResponse;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
  * Date: 24/03/14
@@ -28,4 +31,36 @@ public interface Cache {
     public ActionResponse get(final String key);
 
     public boolean has(final String key);
+
+    /**
+     * Reads the value in a single lookup, callers should prefer this to has() followed by get()
+     *
+     * @return the cached response, null if there is none
+     */
+    default ActionResponse getIfPresent(final String key) {
+        return get(key);
+    }
+
+    /**
+     * Stores the response unless one is already cached for the key. The cached response is left as it is and not
+     * read back.
+     *
+     * @return true if the given response was stored
+     */
+    default boolean putIfAbsent(final String key, ActionResponse data) {
+        if (has(key)) {
+            return false;
+        }
+        put(key, data);
+        return true;
+    }
+
+    default CompletionStage<ActionResponse> getAsync(final String key) {
+        return CompletableFuture.completedFuture(getIfPresent(key));
+    }
+
+    default CompletionStage<Void> putAsync(final String key, ActionResponse data) {
+        put(key, data);
+        return CompletableFuture.completedFuture(null);
+    }
 }
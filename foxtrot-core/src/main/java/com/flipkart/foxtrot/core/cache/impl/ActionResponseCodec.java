@@ -0,0 +1,70 @@
+package com.flipkart.foxtrot.core.cache.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.foxtrot.common.ActionResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes cached action responses into a single byte array.
+ * Layout:
+ * <pre>
+ * [format:1][json or deflated json...]
+ * </pre>
+ * Responses are serialized once with the application mapper, so polymorphic type information is kept, and deflated
+ * when they are large enough for compression to pay off.
+ */
+public class ActionResponseCodec {
+    public static final byte FORMAT_JSON = 0;
+    public static final byte FORMAT_DEFLATED_JSON = 1;
+
+    private static final int COMPRESSION_THRESHOLD_IN_BYTES = 1024;
+
+    private final ObjectMapper mapper;
+
+    public ActionResponseCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public byte[] encode(ActionResponse response) throws IOException {
+        final byte[] json = mapper.writeValueAsBytes(response);
+        if (json.length < COMPRESSION_THRESHOLD_IN_BYTES) {
+            byte[] encoded = new byte[json.length + 1];
+            encoded[0] = FORMAT_JSON;
+            System.arraycopy(json, 0, encoded, 1, json.length);
+            return encoded;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 16);
+        out.write(FORMAT_DEFLATED_JSON);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater)) {
+            deflaterOut.write(json);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    public ActionResponse decode(byte[] encoded) throws IOException {
+        if (null == encoded || encoded.length == 0) {
+            throw new IOException("Empty cache value");
+        }
+        switch (encoded[0]) {
+            case FORMAT_JSON:
+                return mapper.readValue(encoded, 1, encoded.length - 1, ActionResponse.class);
+            case FORMAT_DEFLATED_JSON:
+                try (InputStream in = new InflaterInputStream(
+                        new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+                    return mapper.readValue(in, ActionResponse.class);
+                }
+            default:
+                throw new IOException("Unknown cache value format " + encoded[0]);
+        }
+    }
+}
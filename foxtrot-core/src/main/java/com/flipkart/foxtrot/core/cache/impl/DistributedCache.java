@@ -15,17 +15,27 @@
  */
 package com.flipkart.foxtrot.core.cache.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.foxtrot.common.ActionResponse;
 import com.flipkart.foxtrot.core.cache.Cache;
+import com.flipkart.foxtrot.core.querystore.impl.CacheConfig;
 import com.flipkart.foxtrot.core.querystore.impl.HazelcastConnection;
 import com.flipkart.foxtrot.core.util.Constants;
+import com.flipkart.foxtrot.core.util.MetricUtil;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import static com.flipkart.foxtrot.core.querystore.actions.Constants.CACHE_NAME_PREFIX;
 
@@ -33,37 +43,55 @@ import static com.flipkart.foxtrot.core.querystore.actions.Constants.CACHE_NAME_
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
  * Date: 25/03/14
  * Time: 7:43 PM
+ * <p>
+ * Responses are kept in a distributed map, optionally fronted by a small on-heap cache on each node. The local tier is
+ * filled only from reads of the distributed map, so the responses it shares between requests are always ones served
+ * from cache, and it drops entries as soon as they change or expire in the distributed map.
  */
-
 public class DistributedCache implements Cache {
 
     private static final Logger logger = LoggerFactory.getLogger(DistributedCache.class.getSimpleName());
-    private final IMap<String, String> distributedMap;
+    private static final int DEFAULT_LOCAL_TIME_TO_LIVE_SECONDS = 15;
+    private static final String LOCAL_TIER = "local";
+    private static final String DISTRIBUTED_TIER = "distributed";
+
+    private final String name;
+    // Values are encoded byte arrays; entries written as json strings by older nodes are still read
+    private final IMap<String, Object> distributedMap;
     private final ObjectMapper mapper;
+    private final ActionResponseCodec codec;
+    private final com.google.common.cache.Cache<String, ActionResponse> localCache;
 
     public DistributedCache(HazelcastConnection hazelcastConnection, String name, ObjectMapper mapper) {
+        this(hazelcastConnection, name, mapper, new CacheConfig());
+    }
+
+    public DistributedCache(HazelcastConnection hazelcastConnection, String name, ObjectMapper mapper,
+                            CacheConfig cacheConfig) {
+        this.name = name;
         this.distributedMap = hazelcastConnection.getHazelcast()
                 .getMap(CACHE_NAME_PREFIX + name);
         this.mapper = mapper;
+        this.codec = new ActionResponseCodec(mapper);
+        if (cacheConfig.getLocalCacheSize() > 0) {
+            this.localCache = CacheBuilder.newBuilder()
+                    .maximumSize(cacheConfig.getLocalCacheSize())
+                    .expireAfterWrite(cacheConfig.getLocalCacheTimeToLiveSeconds() == 0
+                                      ? DEFAULT_LOCAL_TIME_TO_LIVE_SECONDS
+                                      : cacheConfig.getLocalCacheTimeToLiveSeconds(), TimeUnit.SECONDS)
+                    .build();
+            this.distributedMap.addEntryListener(new LocalCacheInvalidator(), false);
+        } else {
+            this.localCache = null;
+        }
     }
 
     @Override
     public ActionResponse put(String key, ActionResponse data) {
-        try {
-            final String serializedData = mapper.writeValueAsString(data);
-            if (serializedData != null) {
-                // Only cache if size is less that 256 KB
-                if (serializedData.length() <= Constants.CACHE_VALUE_SIZE_IN_KB) {
-                    distributedMap.put(key, mapper.writeValueAsString(data));
-                } else {
-                    String responsePart = serializedData.substring(0, 1024);
-                    logger.error("Size of response is too big for cache. Skipping it. Response Part : {}",
-                            responsePart
-                    );
-                }
-            }
-        } catch (JsonProcessingException e) {
-            logger.error("Error saving value to map: ", e);
+        final byte[] serializedData = encode(key, data);
+        if (null != serializedData) {
+            distributedMap.put(key, serializedData);
+            invalidateLocal(key);
         }
         return data;
     }
@@ -73,10 +101,99 @@ public class DistributedCache implements Cache {
         if (null == key) {
             return null; //Hazelcast map throws NPE if key is null
         }
-        String data = distributedMap.get(key);
+        ActionResponse response = null == localCache ? null : localCache.getIfPresent(key);
+        if (null != response) {
+            MetricUtil.getInstance()
+                    .registerActionCacheTierHit(name, LOCAL_TIER);
+            return response;
+        }
+        return cacheLocally(key, decode(distributedMap.get(key)));
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, ActionResponse data) {
+        final byte[] serializedData = encode(key, data);
+        if (null == serializedData) {
+            return false;
+        }
+        return null == distributedMap.putIfAbsent(key, serializedData);
+    }
+
+    @Override
+    public CompletionStage<ActionResponse> getAsync(String key) {
+        if (null == key) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ActionResponse response = null == localCache ? null : localCache.getIfPresent(key);
+        if (null != response) {
+            MetricUtil.getInstance()
+                    .registerActionCacheTierHit(name, LOCAL_TIER);
+            return CompletableFuture.completedFuture(response);
+        }
+        return distributedMap.getAsync(key)
+                .thenApply(data -> cacheLocally(key, decode(data)));
+    }
+
+    @Override
+    public CompletionStage<Void> putAsync(String key, ActionResponse data) {
+        final byte[] serializedData = encode(key, data);
+        if (null == serializedData) {
+            return CompletableFuture.completedFuture(null);
+        }
+        invalidateLocal(key);
+        return distributedMap.setAsync(key, serializedData);
+    }
+
+    @Override
+    public boolean has(String key) {
+        return null != key && ((null != localCache && null != localCache.getIfPresent(key))
+                || distributedMap.containsKey(key));
+    }
+
+    private ActionResponse cacheLocally(String key, ActionResponse response) {
+        if (null == response) {
+            MetricUtil.getInstance()
+                    .registerActionCacheTierMiss(name);
+            return null;
+        }
+        MetricUtil.getInstance()
+                .registerActionCacheTierHit(name, DISTRIBUTED_TIER);
+        if (null != localCache) {
+            localCache.put(key, response);
+        }
+        return response;
+    }
+
+    private void invalidateLocal(String key) {
+        if (null != localCache) {
+            localCache.invalidate(key);
+        }
+    }
+    /**
+     * @return the encoded response, null if it can not or should not be cached
+     */
+    private byte[] encode(String key, ActionResponse data) {
+        try {
+            final byte[] serializedData = codec.encode(data);
+            // Only cache if size is less that 256 KB
+            if (serializedData.length <= Constants.CACHE_VALUE_SIZE_IN_KB) {
+                return serializedData;
+            }
+            logger.error("Size of response is too big for cache. Skipping it. Key: {} Size: {}", key,
+                    serializedData.length);
+        } catch (IOException e) {
+            logger.error("Error saving value to map: ", e);
+        }
+        return null;
+    }
+
+    private ActionResponse decode(Object data) {
         if (null != data) {
             try {
-                return mapper.readValue(data, ActionResponse.class);
+                if (data instanceof byte[]) {
+                    return codec.decode((byte[]) data);
+                }
+                return mapper.readValue((String) data, ActionResponse.class);
             } catch (IOException e) {
                 logger.error("Error deserializing: ", e);
             }
@@ -84,8 +201,28 @@ public class DistributedCache implements Cache {
         return null;
     }
 
-    @Override
-    public boolean has(String key) {
-        return null != key && distributedMap.containsKey(key);
+    private class LocalCacheInvalidator implements EntryUpdatedListener<String, Object>,
+            EntryRemovedListener<String, Object>, EntryEvictedListener<String, Object>,
+            EntryExpiredListener<String, Object> {
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Object> event) {
+            invalidateLocal(event.getKey());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, Object> event) {
+            invalidateLocal(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<String, Object> event) {
+            invalidateLocal(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<String, Object> event) {
+            invalidateLocal(event.getKey());
+        }
     }
 }
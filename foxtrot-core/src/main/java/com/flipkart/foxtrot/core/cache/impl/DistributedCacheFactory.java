@@ -39,22 +39,30 @@ public class DistributedCacheFactory implements CacheFactory {
     private static final int DEFAULT_SIZE = 70;
     private final HazelcastConnection connection;
     private final ObjectMapper mapper;
+    private final CacheConfig cacheConfig;
 
     @Inject
     public DistributedCacheFactory(HazelcastConnection connection, ObjectMapper mapper, CacheConfig cacheConfig) {
         this.connection = connection;
         this.mapper = mapper;
+        this.cacheConfig = cacheConfig;
         this.connection.getHazelcastConfig()
-                .addMapConfig(getDefaultMapConfig(cacheConfig));
+                .addMapConfig(getMapConfig(CACHE_NAME_PREFIX + "*", cacheConfig));
+        if (null != cacheConfig.getOpcodes()) {
+            cacheConfig.getOpcodes()
+                    .keySet()
+                    .forEach(opcode -> this.connection.getHazelcastConfig()
+                            .addMapConfig(getMapConfig(CACHE_NAME_PREFIX + opcode, cacheConfig.forOpcode(opcode))));
+        }
     }
 
     @Override
     public Cache create(String name) {
-        return new DistributedCache(connection, name, mapper);
+        return new DistributedCache(connection, name, mapper, cacheConfig.forOpcode(name));
     }
 
-    private MapConfig getDefaultMapConfig(CacheConfig cacheConfig) {
-        MapConfig mapConfig = new MapConfig(CACHE_NAME_PREFIX + "*");
+    private MapConfig getMapConfig(String name, CacheConfig cacheConfig) {
+        MapConfig mapConfig = new MapConfig(name);
         mapConfig.setInMemoryFormat(InMemoryFormat.BINARY);
         mapConfig.setBackupCount(0);
         final EvictionConfig evictionConfig = mapConfig.getEvictionConfig();
@@ -20,19 +20,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.foxtrot.common.ActionRequest;
 import com.flipkart.foxtrot.common.ActionResponse;
 import com.flipkart.foxtrot.common.ActionValidationResponse;
+import com.flipkart.foxtrot.common.TableActionRequestVisitor;
 import com.flipkart.foxtrot.common.query.Filter;
 import com.flipkart.foxtrot.common.query.general.AnyFilter;
 import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
+import com.flipkart.foxtrot.core.cache.BucketCache;
 import com.flipkart.foxtrot.core.cache.CacheManager;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.exception.MalformedQueryException;
+import com.flipkart.foxtrot.core.querystore.QueryScheduler;
 import com.flipkart.foxtrot.core.querystore.QueryStore;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchConfig;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchConnection;
+import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchUtils;
+import com.flipkart.foxtrot.core.querystore.impl.IndexCatalog;
+import com.flipkart.foxtrot.core.querystore.query.FilterOptimizer;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
 import com.google.common.collect.Lists;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +51,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -51,7 +65,12 @@ public abstract class Action<P extends ActionRequest> {
     private final TableMetadataManager tableMetadataManager;
     private final QueryStore queryStore;
     private final CacheManager cacheManager;
+    private final BucketCache bucketCache;
+    private final QueryScheduler queryScheduler;
     private final ObjectMapper objectMapper;
+    private final Executor completionExecutor;
+    private final QueryNormalizationConfig queryNormalizationConfig;
+    private final IndexCatalog indexCatalog;
     private P parameter;
     private ElasticsearchConnection connection;
 
@@ -60,12 +79,24 @@ public abstract class Action<P extends ActionRequest> {
         this.tableMetadataManager = analyticsLoader.getTableMetadataManager();
         this.queryStore = analyticsLoader.getQueryStore();
         this.cacheManager = analyticsLoader.getCacheManager();
+        this.bucketCache = analyticsLoader.getBucketCache();
+        this.queryScheduler = analyticsLoader.getQueryScheduler();
         this.connection = analyticsLoader.getElasticsearchConnection();
         this.objectMapper = analyticsLoader.getObjectMapper();
+        this.completionExecutor = analyticsLoader.getExecutorService();
+        this.queryNormalizationConfig = analyticsLoader.getQueryNormalizationConfig();
+        this.indexCatalog = analyticsLoader.getIndexCatalog();
     }
 
     public String cacheKey() {
-        return String.format("%s-%d", getRequestCacheKey(), System.currentTimeMillis() / 30000);
+        return bucketedCacheKey(getRequestCacheKey());
+    }
+
+    /**
+     * Cache key for the current time bucket, from a request cache key taken before the request was preprocessed
+     */
+    public static String bucketedCacheKey(String requestCacheKey) {
+        return String.format("%s-%d", requestCacheKey, System.currentTimeMillis() / 30000);
     }
 
     private void preProcessRequest() {
@@ -102,7 +133,129 @@ public abstract class Action<P extends ActionRequest> {
 
     public ActionResponse execute() {
         preProcessRequest();
-        return execute(parameter);
+        ActionResponse unsatisfiableResponse = getUnsatisfiableResponse();
+        if (null != unsatisfiableResponse) {
+            return unsatisfiableResponse;
+        }
+        try (QueryScheduler.Permit ignored = queryScheduler.admit(parameter, getEstimatedCardinality())) {
+            return execute(parameter);
+        }
+    }
+
+    /**
+     * Non blocking variant of {@link #execute()}. The calling thread never waits for admission and responses are
+     * parsed on the completion executor, not on an elasticsearch client thread.
+     */
+    public CompletableFuture<ActionResponse> executeAsync() {
+        preProcessRequest();
+        ActionResponse unsatisfiableResponse = getUnsatisfiableResponse();
+        if (null != unsatisfiableResponse) {
+            return CompletableFuture.completedFuture(unsatisfiableResponse);
+        }
+        final CompletableFuture<QueryScheduler.Permit> admission = queryScheduler.admitAsync(parameter,
+                getEstimatedCardinality());
+        if (admission.isDone()) {
+            return admission.thenCompose(this::executeAdmitted);
+        }
+        // Queries that had to wait are started off the admission thread
+        return admission.thenCompose(permit -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> permit, completionExecutor)
+                        .thenCompose(this::executeAdmitted);
+            } catch (RejectedExecutionException e) {
+                permit.close();
+                throw e;
+            }
+        });
+    }
+
+    private CompletableFuture<ActionResponse> executeAdmitted(QueryScheduler.Permit permit) {
+        final CompletableFuture<ActionResponse> future;
+        try {
+            future = executeAsync(parameter);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        return future.whenComplete((response, error) -> permit.close());
+    }
+
+    /**
+     * Actions that run a single search override this to use the async client. The default runs
+     * {@link #execute(ActionRequest)} on the calling thread.
+     */
+    public CompletableFuture<ActionResponse> executeAsync(P parameter) {
+        CompletableFuture<ActionResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(execute(parameter));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    protected CompletableFuture<ActionResponse> searchAsync(SearchRequest request, P parameter) {
+        CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+        getConnection().getClient()
+                .searchAsync(request, RequestOptions.DEFAULT, new ActionListener<SearchResponse>() {
+                    @Override
+                    public void onResponse(SearchResponse response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        future.completeExceptionally(FoxtrotExceptions.createQueryExecutionException(parameter, e));
+                    }
+                });
+        return future.thenApplyAsync(response -> getResponse(response, parameter), completionExecutor);
+    }
+
+    /**
+     * @return executor that non blocking queries complete on
+     */
+    protected Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+
+    /**
+     * Response for a request that can not match any document, returned without querying elasticsearch.
+     *
+     * @return empty response, null if the action always has to run its query
+     */
+    protected ActionResponse emptyResponse(P parameter) {
+        return null;
+    }
+
+    private ActionResponse getUnsatisfiableResponse() {
+        final String reason;
+        if (FilterOptimizer.isUnsatisfiable(parameter.getFilters())) {
+            reason = "filters can not match any document";
+        } else if (!hasIndices()) {
+            reason = "no index covers the requested window";
+        } else {
+            return null;
+        }
+        ActionResponse response = emptyResponse(parameter);
+        if (null != response) {
+            logger.info("Skipping query of {} request, {}", parameter.getOpcode(), reason);
+        }
+        return response;
+    }
+
+    private boolean hasIndices() {
+        final String table = parameter.accept(new TableActionRequestVisitor());
+        return null == table || ElasticsearchUtils.hasIndices(table, parameter, indexCatalog);
+    }
+
+    /**
+     * Estimated number of buckets in the response, available once the request has been validated. Used by the query
+     * scheduler to tell expensive queries apart.
+     *
+     * @return estimated cardinality, 0 if unknown
+     */
+    public long getEstimatedCardinality() {
+        return 0;
     }
 
     public long getGetQueryTimeout() {
@@ -171,6 +324,18 @@ public abstract class Action<P extends ActionRequest> {
         return objectMapper;
     }
 
+    public BucketCache getBucketCache() {
+        return bucketCache;
+    }
+
+    public QueryNormalizationConfig getQueryNormalizationConfig() {
+        return queryNormalizationConfig;
+    }
+
+    public IndexCatalog getIndexCatalog() {
+        return indexCatalog;
+    }
+
     protected Filter getDefaultTimeSpan() {
         LessThanFilter lessThanFilter = new LessThanFilter();
         lessThanFilter.setTemporal(true);
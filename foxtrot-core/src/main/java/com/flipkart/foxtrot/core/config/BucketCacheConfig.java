@@ -0,0 +1,42 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Cache of closed time buckets of histogram and trend series, so that only the open tail of a series is aggregated
+ on every request.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketCacheConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    /***
+     How long after its end a bucket is considered closed. Needs to cover ingestion delays, buckets are never
+     recomputed once cached.
+     ***/
+    @Min(0)
+    @Builder.Default
+    private long closedBucketLagSeconds = 300;
+
+    @Min(1)
+    @Builder.Default
+    private long maxSeries = 10_000;
+
+    @Min(1)
+    @Builder.Default
+    private int maxBucketsPerSeries = 10_080;
+
+    @Min(1)
+    @Builder.Default
+    private long expireAfterAccessSeconds = 3600;
+}
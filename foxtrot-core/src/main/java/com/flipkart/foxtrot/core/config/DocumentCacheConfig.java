@@ -0,0 +1,38 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import java.util.HashSet;
+import java.util.Set;
+
+/***
+ Near cache of documents read from the data store. Documents are immutable once written, so entries never need to
+ be invalidated, only evicted.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentCacheConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    @Min(1024)
+    @Builder.Default
+    private long maxSizeInBytes = 256 * 1024 * 1024L;
+
+    @Min(1)
+    @Builder.Default
+    private long expireAfterAccessSeconds = 600;
+
+    /***
+     Tables for which documents are put in the cache as they are ingested, not just when they are first read
+     ***/
+    @Builder.Default
+    private Set<String> populateOnWriteTables = new HashSet<>();
+}
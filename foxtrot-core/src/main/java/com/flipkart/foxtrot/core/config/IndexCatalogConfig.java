@@ -0,0 +1,29 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Catalog of the table indices present in the cluster. Queries skip the daily indices of past days that do not exist
+ or are past the table ttl, and a query whose window has no index left is answered without going to elasticsearch.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexCatalogConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    /***
+     Indices created by other nodes for past days are seen by this node only after the next refresh
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int refreshIntervalInSeconds = 60;
+}
@@ -0,0 +1,44 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Coalesces concurrent single document saves on a table into one data store batch and one bulk index request.
+ A batch is flushed when it reaches maxBatchSize documents, maxBatchSizeInBytes estimated bytes or has waited
+ lingerTimeInMillis, whichever happens first. A save fails if its batch has not been written within
+ saveTimeoutInMillis.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionBufferConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    @Min(1)
+    @Builder.Default
+    private int maxBatchSize = 500;
+
+    @Min(1024)
+    @Builder.Default
+    private long maxBatchSizeInBytes = 5 * 1024 * 1024L;
+
+    @Min(1)
+    @Builder.Default
+    private long lingerTimeInMillis = 20;
+
+    @Min(1)
+    @Builder.Default
+    private int flushThreads = 4;
+
+    @Min(1)
+    @Builder.Default
+    private long saveTimeoutInMillis = 30_000;
+}
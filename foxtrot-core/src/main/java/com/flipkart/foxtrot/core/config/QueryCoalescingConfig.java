@@ -0,0 +1,37 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Deduplication of identical analytics queries that are in flight at the same time. Queries are identical when their
+ action cache keys match.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryCoalescingConfig {
+
+    @Builder.Default
+    private boolean enabled = true;
+
+    /***
+     Also coalesce across the cluster, using a hazelcast lock per cache key. Nodes that lose the race wait for the
+     winner and read its response from the action cache.
+     ***/
+    @Builder.Default
+    private boolean clusterWide = false;
+
+    @Min(1)
+    @Builder.Default
+    private long clusterWaitTimeInMillis = 10_000;
+
+    @Min(1)
+    @Builder.Default
+    private long clusterLockLeaseTimeInMillis = 60_000;
+}
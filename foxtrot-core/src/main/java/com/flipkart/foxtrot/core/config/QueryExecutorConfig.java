@@ -0,0 +1,40 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Sizing of the shared query-executor pool that runs async queries, background refreshes and other blocking store
+ calls. Queries block on elasticsearch for most of their life, so the pool can be much larger than the core count,
+ and the elasticsearch connection pool should be sized to match it.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryExecutorConfig {
+
+    @Min(1)
+    @Builder.Default
+    private int minThreads = 20;
+
+    @Min(1)
+    @Builder.Default
+    private int maxThreads = 30;
+
+    @Min(1)
+    @Builder.Default
+    private int keepAliveTimeInSeconds = 30;
+
+    /***
+     Tasks waiting for a thread. 0 leaves the queue unbounded, in which case the pool never grows past minThreads.
+     With a bounded queue the pool grows to maxThreads once the queue is full, and rejects tasks after that.
+     ***/
+    @Min(0)
+    @Builder.Default
+    private int maxQueueSize = 0;
+}
@@ -0,0 +1,30 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Normalization of generated analytics queries so that elasticsearch can serve them from its shard request cache.
+ Temporal bounds are widened to the configured granularity, so the same console widget generates the same query for
+ the whole of a granule instead of a new one every millisecond.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryNormalizationConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    /***
+     Lower temporal bounds are rounded down and upper bounds rounded up to a multiple of this
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int temporalGranularityInSeconds = 60;
+}
@@ -0,0 +1,66 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import java.util.HashMap;
+import java.util.Map;
+
+/***
+ Admission control for analytics queries. Queries hold permits from fair semaphores while they run against
+ elasticsearch, so waiting queries are admitted in arrival order, and expensive ones take several permits.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuerySchedulerConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    @Min(1)
+    @Builder.Default
+    private int maxConcurrentQueries = 64;
+
+    @Min(1)
+    @Builder.Default
+    private int maxConcurrentQueriesPerTable = 16;
+
+    /***
+     Concurrency limits for individual opcodes, opcodes not listed are only bound by the other limits
+     ***/
+    @Builder.Default
+    private Map<String, Integer> maxConcurrentQueriesPerOpcode = new HashMap<>();
+
+    /***
+     Longest a query may wait for permits before it is rejected
+     ***/
+    @Min(0)
+    @Builder.Default
+    private long maxQueueTimeInMillis = 2_000;
+
+    /***
+     Queries are rejected without waiting once this many are already waiting
+     ***/
+    @Min(0)
+    @Builder.Default
+    private int maxQueueLength = 256;
+
+    /***
+     Group queries estimated to return at least this many buckets are expensive
+     ***/
+    @Min(1)
+    @Builder.Default
+    private long expensiveCardinalityThreshold = 10_000;
+
+    /***
+     Permits taken by an expensive query
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int expensiveQueryWeight = 4;
+}
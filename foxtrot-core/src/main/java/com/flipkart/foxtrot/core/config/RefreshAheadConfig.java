@@ -0,0 +1,51 @@
+package com.flipkart.foxtrot.core.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/***
+ Background refresh of frequently repeated cacheable analytics queries. Hot queries are re-executed before their
+ cached response gets old, and while a refresh is running callers get the last response, marked as stale.
+ ***/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshAheadConfig {
+
+    @Builder.Default
+    private boolean enabled = false;
+
+    /***
+     A query is hot once it is requested at least this many times within an access window
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int hotAccessThreshold = 5;
+
+    @Min(1)
+    @Builder.Default
+    private int accessWindowSeconds = 60;
+
+    /***
+     Age of the last response after which a request for a hot query schedules a refresh
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int refreshAfterSeconds = 10;
+
+    /***
+     Oldest response that may be served as stale when the cache has nothing for the query
+     ***/
+    @Min(1)
+    @Builder.Default
+    private int maxStaleSeconds = 60;
+
+    @Min(1)
+    @Builder.Default
+    private int maxTrackedQueries = 10_000;
+}
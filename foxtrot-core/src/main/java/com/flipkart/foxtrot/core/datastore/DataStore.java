@@ -18,7 +18,10 @@ package com.flipkart.foxtrot.core.datastore;
 import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.common.Table;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -33,9 +36,40 @@ public interface DataStore {
 
     List<Document> saveAll(final Table table, final List<Document> documents);
 
+    /**
+     * Same as {@link #save(Table, Document)}, also handing back the json the document was written as, if any
+     */
+    default SavedDocument saveSerialized(final Table table, final Document document) {
+        return new SavedDocument(save(table, document), null);
+    }
+
+    /**
+     * Same as {@link #saveAll(Table, List)}, also handing back the json the documents were written as, if any
+     */
+    default List<SavedDocument> saveAllSerialized(final Table table, final List<Document> documents) {
+        return saveAll(table, documents).stream()
+                .map(document -> new SavedDocument(document, null))
+                .collect(Collectors.toList());
+    }
+
     Document get(final Table table, final String id);
 
     List<Document> getAll(final Table table, final List<String> ids);
 
+    /**
+     * Same as {@link #getAll(Table, List)} but reports missing ids instead of failing the whole request
+     */
+    default MultiGetResult getAllAvailable(final Table table, final List<String> ids) {
+        return new MultiGetResult(getAll(table, ids), Collections.emptyList());
+    }
+
+    /**
+     * Resolves document ids to the ids documents were saved under, for stores that keep such an index.
+     * Ids that can not be resolved are left out of the returned map.
+     */
+    default Map<String, String> resolveIds(final Table table, final List<String> ids) {
+        return Collections.emptyMap();
+    }
+
     void updateTable(final Table table);
 }
@@ -0,0 +1,27 @@
+package com.flipkart.foxtrot.core.datastore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.foxtrot.common.Document;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Serializes translated documents for the data store. The bytes are returned with the saved document, see
+ * {@link SavedDocument}, so that the query store can index them without serializing the document again.
+ */
+@Singleton
+public class DocumentSerializer {
+    private final ObjectMapper mapper;
+
+    @Inject
+    public DocumentSerializer(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public SerializedDocument serialize(Document document) throws JsonProcessingException {
+        return new SerializedDocument(mapper.writeValueAsBytes(document.getData()),
+                mapper.writeValueAsBytes(document.getMetadata()), mapper.writeValueAsBytes(document.getDate()));
+    }
+}
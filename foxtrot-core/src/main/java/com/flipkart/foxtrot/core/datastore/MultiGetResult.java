@@ -0,0 +1,17 @@
+package com.flipkart.foxtrot.core.datastore;
+
+import com.flipkart.foxtrot.common.Document;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a lenient multi get: documents that were found, in request order, and ids that were not
+ */
+@Getter
+@AllArgsConstructor
+public class MultiGetResult {
+    private final List<Document> documents;
+    private final List<String> missingIds;
+}
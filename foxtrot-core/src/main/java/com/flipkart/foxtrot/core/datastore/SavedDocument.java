@@ -0,0 +1,16 @@
+package com.flipkart.foxtrot.core.datastore;
+
+import com.flipkart.foxtrot.common.Document;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Translated document as written to the data store, along with the json it was written as. The json is null when
+ * the store did not write the document as json.
+ */
+@Getter
+@AllArgsConstructor
+public class SavedDocument {
+    private final Document document;
+    private final SerializedDocument serialized;
+}
@@ -0,0 +1,16 @@
+package com.flipkart.foxtrot.core.datastore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Json bytes of the parts of a translated document, produced once and shared between the data store and the
+ * query store write paths
+ */
+@Getter
+@AllArgsConstructor
+public class SerializedDocument {
+    private final byte[] data;
+    private final byte[] metadata;
+    private final byte[] date;
+}
@@ -0,0 +1,221 @@
+package com.flipkart.foxtrot.core.datastore.impl.cache;
+
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.common.Table;
+import com.flipkart.foxtrot.core.config.DocumentCacheConfig;
+import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
+import com.flipkart.foxtrot.core.datastore.SavedDocument;
+import com.flipkart.foxtrot.core.util.DocumentSizeEstimator;
+import com.flipkart.foxtrot.core.util.MetricUtil;
+import com.foxtrot.flipkart.translator.DocumentTranslator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read through cache of documents in front of another {@link DataStore}, keyed on raw storage id.
+ * Entries are weighed by their estimated size and evicted once the configured number of bytes is exceeded.
+ */
+public class CachedDataStore implements DataStore {
+
+    private final DataStore dataStore;
+    private final DocumentTranslator translator;
+    private final Set<String> populateOnWriteTables;
+    private final Cache<CacheKey, Document> documents;
+
+    public CachedDataStore(DataStore dataStore, DocumentTranslator translator, DocumentCacheConfig config) {
+        this.dataStore = dataStore;
+        this.translator = translator;
+        this.populateOnWriteTables = null == config.getPopulateOnWriteTables()
+                                     ? new HashSet<>()
+                                     : new HashSet<>(config.getPopulateOnWriteTables());
+        this.documents = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSizeInBytes())
+                .weigher((CacheKey key, Document document) -> (int) Math.min(Integer.MAX_VALUE,
+                        DocumentSizeEstimator.estimate(document)))
+                .expireAfterAccess(config.getExpireAfterAccessSeconds(), TimeUnit.SECONDS)
+                .removalListener((RemovalNotification<CacheKey, Document> notification) -> {
+                    if (notification.wasEvicted() && null != notification.getKey()) {
+                        MetricUtil.getInstance()
+                                .registerDocumentCacheEviction(notification.getKey().table);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void initializeTable(Table table, boolean forceTableCreate) {
+        dataStore.initializeTable(table, forceTableCreate);
+    }
+
+    @Override
+    public Document save(Table table, Document document) {
+        Document translatedDocument = dataStore.save(table, document);
+        populate(table, translatedDocument);
+        return translatedDocument;
+    }
+
+    @Override
+    public List<Document> saveAll(Table table, List<Document> documents) {
+        List<Document> translatedDocuments = dataStore.saveAll(table, documents);
+        if (populateOnWriteTables.contains(table.getName())) {
+            translatedDocuments.forEach(translatedDocument -> populate(table, translatedDocument));
+        }
+        return translatedDocuments;
+    }
+
+    @Override
+    public SavedDocument saveSerialized(Table table, Document document) {
+        SavedDocument savedDocument = dataStore.saveSerialized(table, document);
+        populate(table, savedDocument.getDocument());
+        return savedDocument;
+    }
+
+    @Override
+    public List<SavedDocument> saveAllSerialized(Table table, List<Document> documents) {
+        List<SavedDocument> savedDocuments = dataStore.saveAllSerialized(table, documents);
+        if (populateOnWriteTables.contains(table.getName())) {
+            savedDocuments.forEach(savedDocument -> populate(table, savedDocument.getDocument()));
+        }
+        return savedDocuments;
+    }
+
+    @Override
+    public Document get(Table table, String id) {
+        CacheKey key = key(table, id);
+        Document document = documents.getIfPresent(key);
+        if (null != document) {
+            MetricUtil.getInstance()
+                    .registerDocumentCacheHit(table.getName());
+            return document;
+        }
+        MetricUtil.getInstance()
+                .registerDocumentCacheMiss(table.getName());
+        document = dataStore.get(table, id);
+        documents.put(key, document);
+        return document;
+    }
+
+    @Override
+    public List<Document> getAll(Table table, List<String> ids) {
+        if (null == ids || ids.isEmpty()) {
+            return dataStore.getAll(table, ids);
+        }
+        Lookup lookup = lookup(table, ids);
+        if (!lookup.missedIds.isEmpty()) {
+            lookup.fill(dataStore.getAll(table, lookup.missedIds), new HashSet<>());
+        }
+        return lookup.collect();
+    }
+
+    @Override
+    public MultiGetResult getAllAvailable(Table table, List<String> ids) {
+        if (null == ids || ids.isEmpty()) {
+            return dataStore.getAllAvailable(table, ids);
+        }
+        Lookup lookup = lookup(table, ids);
+        if (lookup.missedIds.isEmpty()) {
+            return new MultiGetResult(lookup.collect(), new ArrayList<>());
+        }
+        MultiGetResult result = dataStore.getAllAvailable(table, lookup.missedIds);
+        lookup.fill(result.getDocuments(), new HashSet<>(result.getMissingIds()));
+        return new MultiGetResult(lookup.collect(), result.getMissingIds());
+    }
+
+    @Override
+    public Map<String, String> resolveIds(Table table, List<String> ids) {
+        return dataStore.resolveIds(table, ids);
+    }
+
+    @Override
+    public void updateTable(Table table) {
+        dataStore.updateTable(table);
+    }
+
+    private void populate(Table table, Document translatedDocument) {
+        if (!populateOnWriteTables.contains(table.getName()) || null == translatedDocument.getMetadata()) {
+            return;
+        }
+        documents.put(new CacheKey(table.getName(), translatedDocument.getMetadata()
+                .getRawStorageId()), translator.translateBack(translatedDocument));
+    }
+
+    private CacheKey key(Table table, String id) {
+        return new CacheKey(table.getName(), translator.rawStorageIdFromDocumentId(table, id));
+    }
+
+    private Lookup lookup(Table table, List<String> ids) {
+        Lookup lookup = new Lookup(table, ids);
+        for (int i = 0; i < ids.size(); i++) {
+            Document document = documents.getIfPresent(lookup.keys[i]);
+            if (null != document) {
+                lookup.found[i] = document;
+                MetricUtil.getInstance()
+                        .registerDocumentCacheHit(table.getName());
+            } else {
+                lookup.missedIds.add(ids.get(i));
+                MetricUtil.getInstance()
+                        .registerDocumentCacheMiss(table.getName());
+            }
+        }
+        return lookup;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class CacheKey {
+        private final String table;
+        private final String rawStorageId;
+    }
+
+    private final class Lookup {
+        private final List<String> ids;
+        private final CacheKey[] keys;
+        private final Document[] found;
+        private final List<String> missedIds = new ArrayList<>();
+
+        private Lookup(Table table, List<String> ids) {
+            this.ids = ids;
+            this.keys = new CacheKey[ids.size()];
+            this.found = new Document[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                keys[i] = key(table, ids.get(i));
+            }
+        }
+
+        /**
+         * Slots fetched documents into place. Fetched documents are in the order of missed ids, minus the ones
+         * reported missing.
+         */
+        private void fill(List<Document> fetched, Set<String> missingIds) {
+            int next = 0;
+            for (int i = 0; i < ids.size() && next < fetched.size(); i++) {
+                if (null != found[i] || missingIds.contains(ids.get(i))) {
+                    continue;
+                }
+                found[i] = fetched.get(next++);
+                documents.put(keys[i], found[i]);
+            }
+        }
+
+        private List<Document> collect() {
+            List<Document> result = new ArrayList<>(found.length);
+            for (Document document : found) {
+                if (null != document) {
+                    result.add(document);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.flipkart.foxtrot.core.datastore.impl.hbase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.common.DocumentMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Encodes a translated document into a single HBase cell.
+ * Layout (version 1):
+ * <pre>
+ * [version:1][timestamp:8][hasMetadata:1]([id:utf][rawStorageId:utf][time:8])[smile data...]
+ * </pre>
+ */
+public class CompactDocumentCodec {
+    static final byte VERSION_1 = 1;
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    public byte[] encode(Document document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (DataOutputStream dataOut = new DataOutputStream(out)) {
+            dataOut.writeByte(VERSION_1);
+            dataOut.writeLong(document.getTimestamp());
+            DocumentMetadata metadata = document.getMetadata();
+            dataOut.writeBoolean(metadata != null);
+            if (metadata != null) {
+                writeString(dataOut, metadata.getId());
+                writeString(dataOut, metadata.getRawStorageId());
+                dataOut.writeLong(metadata.getTime());
+            }
+            dataOut.flush();
+            smileMapper.writeValue(out, document.getData());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param documentId id to use if the payload carries no metadata
+     */
+    public Document decode(String documentId, byte[] payload) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(payload);
+        DataInputStream dataIn = new DataInputStream(in);
+        byte version = dataIn.readByte();
+        if (version != VERSION_1) {
+            throw new IOException("Unknown document payload version " + version);
+        }
+        long timestamp = dataIn.readLong();
+        DocumentMetadata metadata = null;
+        if (dataIn.readBoolean()) {
+            metadata = new DocumentMetadata(readString(dataIn), readString(dataIn), dataIn.readLong());
+        }
+        return new Document(documentId, timestamp, metadata, smileMapper.readTree(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -22,6 +22,10 @@ import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.common.DocumentMetadata;
 import com.flipkart.foxtrot.common.Table;
 import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.flipkart.foxtrot.core.datastore.DocumentSerializer;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
+import com.flipkart.foxtrot.core.datastore.SavedDocument;
+import com.flipkart.foxtrot.core.datastore.SerializedDocument;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.foxtrot.flipkart.translator.DocumentTranslator;
 import com.google.common.annotations.VisibleForTesting;
@@ -37,8 +41,13 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -54,16 +63,36 @@ public class HBaseDataStore implements DataStore {
     private static final byte[] DOCUMENT_META_FIELD_NAME = Bytes.toBytes("metadata");
     private static final byte[] TIMESTAMP_FIELD_NAME = Bytes.toBytes("timestamp");
     private static final byte[] DATE_FIELD_NAME = Bytes.toBytes("date");
+    private static final byte[] PAYLOAD_FIELD_NAME = Bytes.toBytes("p");
+    private static final byte[] INDEXED_ID_FIELD_NAME = Bytes.toBytes("r");
+    private static final String ID_INDEX_ROW_PREFIX = "__idx__";
 
     private final HbaseTableConnection tableWrapper;
     private final ObjectMapper mapper;
     private final DocumentTranslator translator;
+    private final DocumentSerializer serializer;
+    private final HbasePayloadFormat payloadFormat;
+    private final boolean idIndexEnabled;
+    private final CompactDocumentCodec compactCodec = new CompactDocumentCodec();
 
-    @Inject
     public HBaseDataStore(HbaseTableConnection tableWrapper, ObjectMapper mapper, DocumentTranslator translator) {
+        this(tableWrapper, mapper, translator, new DocumentSerializer(mapper));
+    }
+
+    @Inject
+    public HBaseDataStore(HbaseTableConnection tableWrapper,
+                          ObjectMapper mapper,
+                          DocumentTranslator translator,
+                          DocumentSerializer serializer) {
         this.tableWrapper = tableWrapper;
         this.mapper = mapper;
         this.translator = translator;
+        this.serializer = serializer;
+        HbaseConfig hbaseConfig = tableWrapper.getHbaseConfig();
+        this.payloadFormat = (null == hbaseConfig || null == hbaseConfig.getPayloadFormat())
+                             ? HbasePayloadFormat.JSON
+                             : hbaseConfig.getPayloadFormat();
+        this.idIndexEnabled = null != hbaseConfig && hbaseConfig.isIdIndexEnabled();
     }
 
     @Override
@@ -90,29 +119,49 @@ public class HBaseDataStore implements DataStore {
     @Override
     @Timed
     public Document save(final Table table, Document document) {
+        return saveSerialized(table, document).getDocument();
+    }
+
+    @Override
+    @Timed
+    public SavedDocument saveSerialized(final Table table, Document document) {
         if (document == null || document.getData() == null || document.getId() == null) {
             throw FoxtrotExceptions.createBadRequestException(table.getName(), "Invalid Input Document");
         }
-        Document translatedDocument = null;
+        SavedDocument savedDocument = null;
         try (org.apache.hadoop.hbase.client.Table hTable = tableWrapper.getTable(table)) {
-            translatedDocument = translator.translate(table, document);
-            hTable.put(getPutForDocument(translatedDocument));
+            Document translatedDocument = translator.translate(table, document);
+            savedDocument = new SavedDocument(translatedDocument, serialize(translatedDocument));
+            Put put = getPut(savedDocument);
+            if (idIndexEnabled) {
+                hTable.put(ImmutableList.of(put, getIdIndexPut(table, translatedDocument)));
+            } else {
+                hTable.put(put);
+            }
         } catch (JsonProcessingException e) {
             throw FoxtrotExceptions.createBadRequestException(table, e);
         } catch (IOException e) {
             throw FoxtrotExceptions.createConnectionException(table, e);
         }
-        return translatedDocument;
+        return savedDocument;
     }
 
     @Override
     @Timed
     public List<Document> saveAll(final Table table, List<Document> documents) {
+        return saveAllSerialized(table, documents).stream()
+                .map(SavedDocument::getDocument)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Timed
+    public List<SavedDocument> saveAllSerialized(final Table table, List<Document> documents) {
         if (documents == null || documents.isEmpty()) {
             throw FoxtrotExceptions.createBadRequestException(table.getName(), "null/empty document list not allowed");
         }
         List<Put> puts = new ArrayList<>();
-        ImmutableList.Builder<Document> translatedDocuments = ImmutableList.builder();
+        ImmutableList.Builder<SavedDocument> savedDocuments = ImmutableList.builder();
         List<String> errorMessages = new ArrayList<>();
         try {
             for (int i = 0; i < documents.size(); i++) {
@@ -121,10 +170,14 @@ public class HBaseDataStore implements DataStore {
                     continue;
                 }
                 Document translatedDocument = translator.translate(table, document);
-                puts.add(getPutForDocument(translatedDocument));
-                translatedDocuments.add(translatedDocument);
+                SavedDocument savedDocument = new SavedDocument(translatedDocument, serialize(translatedDocument));
+                puts.add(getPut(savedDocument));
+                if (idIndexEnabled) {
+                    puts.add(getIdIndexPut(table, translatedDocument));
+                }
+                savedDocuments.add(savedDocument);
             }
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw FoxtrotExceptions.createBadRequestException(table, e);
         }
         if (!errorMessages.isEmpty()) {
@@ -137,7 +190,7 @@ public class HBaseDataStore implements DataStore {
             logger.error("Error occurred while ingesting event in HBase : ", e);
             throw FoxtrotExceptions.createConnectionException(table, e);
         }
-        return translatedDocuments.build();
+        return savedDocuments.build();
     }
 
     private boolean isValidDocument(Document document, List<String> errorMessages, int index) {
@@ -165,15 +218,11 @@ public class HBaseDataStore implements DataStore {
             Get get = new Get(Bytes.toBytes(translator.rawStorageIdFromDocumentId(table, id))).addColumn(COLUMN_FAMILY, DOCUMENT_FIELD_NAME)
                     .addColumn(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME)
                     .addColumn(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME)
+                    .addColumn(COLUMN_FAMILY, PAYLOAD_FIELD_NAME)
                     .setMaxVersions(1);
             Result getResult = hTable.get(get);
             if (!getResult.isEmpty()) {
-                byte[] data = getResult.getValue(COLUMN_FAMILY, DOCUMENT_FIELD_NAME);
-                byte[] metadata = getResult.getValue(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME);
-                byte[] timestamp = getResult.getValue(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME);
-                long time = Bytes.toLong(timestamp);
-                DocumentMetadata documentMetadata = (null != metadata) ? mapper.readValue(metadata, DocumentMetadata.class) : null;
-                return translator.translateBack(new Document(id, time, documentMetadata, mapper.readTree(data)));
+                return translator.translateBack(readDocument(getResult, id));
             } else {
                 logger.error("ID missing in HBase - {}", id);
                 throw FoxtrotExceptions.createMissingDocumentException(table, id);
@@ -186,10 +235,22 @@ public class HBaseDataStore implements DataStore {
     @Override
     @Timed
     public List<Document> getAll(final Table table, List<String> ids) {
+        MultiGetResult result = getAllAvailable(table, ids);
+        if (!result.getMissingIds()
+                .isEmpty()) {
+            logger.error("ID's missing in HBase - {}", result.getMissingIds());
+            throw FoxtrotExceptions.createMissingDocumentsException(table, result.getMissingIds());
+        }
+        return result.getDocuments();
+    }
+
+    @Override
+    @Timed
+    public MultiGetResult getAllAvailable(final Table table, List<String> ids) {
         if (CollectionUtils.isEmpty(ids)) {
             throw FoxtrotExceptions.createBadRequestException(table.getName(), "Empty ID List");
         }
-        try (org.apache.hadoop.hbase.client.Table hTable = tableWrapper.getTable(table)) {
+        try {
             List<Get> gets = new ArrayList<>(ids.size());
             for (String id : ids) {
                 Get get = new Get(Bytes.toBytes(translator.rawStorageIdFromDocumentId(table, id))).addColumn(COLUMN_FAMILY,
@@ -197,32 +258,27 @@ public class HBaseDataStore implements DataStore {
                 )
                         .addColumn(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME)
                         .addColumn(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME)
+                        .addColumn(COLUMN_FAMILY, PAYLOAD_FIELD_NAME)
                         .setMaxVersions(1);
                 gets.add(get);
             }
-            Result[] getResults = hTable.get(gets);
+            Result[] getResults = multiGet(table, gets);
             List<String> missingIds = new ArrayList<>();
             List<Document> results = new ArrayList<>(ids.size());
             for (int index = 0; index < getResults.length; index++) {
                 Result getResult = getResults[index];
-                if (!getResult.isEmpty()) {
-                    byte[] data = getResult.getValue(COLUMN_FAMILY, DOCUMENT_FIELD_NAME);
-                    byte[] metadata = getResult.getValue(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME);
-                    byte[] timestamp = getResult.getValue(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME);
-                    long time = Bytes.toLong(timestamp);
-                    DocumentMetadata documentMetadata = (null != metadata) ? mapper.readValue(metadata, DocumentMetadata.class) : null;
-                    final String docId = (null == metadata) ? Bytes.toString(getResult.getRow())
-                            .split(":")[0] : documentMetadata.getRawStorageId();
-                    results.add(translator.translateBack(new Document(docId, time, documentMetadata, mapper.readTree(data))));
+                if (null != getResult && !getResult.isEmpty()) {
+                    Document document = readDocument(getResult, null);
+                    final String docId = (null == document.getMetadata()) ? Bytes.toString(getResult.getRow())
+                            .split(":")[0] : document.getMetadata()
+                            .getRawStorageId();
+                    document.setId(docId);
+                    results.add(translator.translateBack(document));
                 } else {
                     missingIds.add(ids.get(index));
                 }
             }
-            if (!missingIds.isEmpty()) {
-                logger.error("ID's missing in HBase - {}", missingIds);
-                throw FoxtrotExceptions.createMissingDocumentsException(table, missingIds);
-            }
-            return results;
+            return new MultiGetResult(results, missingIds);
         } catch (JsonProcessingException e) {
             throw FoxtrotExceptions.createBadRequestException(table, e);
         } catch (IOException e) {
@@ -230,15 +286,107 @@ public class HBaseDataStore implements DataStore {
         }
     }
 
+    /**
+     * Looks up the id index rows written alongside documents. Resolved ids are the ones documents are indexed under
+     * in the query store, so they can be passed straight to {@link #get(Table, String)}.
+     */
+    @Override
+    @Timed
+    public Map<String, String> resolveIds(final Table table, List<String> ids) {
+        if (!idIndexEnabled || CollectionUtils.isEmpty(ids)) {
+            return Collections.emptyMap();
+        }
+        List<Get> gets = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            gets.add(new Get(getIdIndexRowKey(table, id)).addColumn(COLUMN_FAMILY, INDEXED_ID_FIELD_NAME)
+                    .setMaxVersions(1));
+        }
+        try {
+            Result[] results = multiGet(table, gets);
+            Map<String, String> resolvedIds = new HashMap<>();
+            for (int index = 0; index < results.length; index++) {
+                byte[] indexedId = null == results[index] ? null : results[index].getValue(COLUMN_FAMILY,
+                        INDEXED_ID_FIELD_NAME);
+                if (null != indexedId) {
+                    resolvedIds.put(ids.get(index), Bytes.toString(indexedId));
+                }
+            }
+            return resolvedIds;
+        } catch (IOException e) {
+            throw FoxtrotExceptions.createConnectionException(table, e);
+        }
+    }
+
+    /**
+     * The client already groups the gets by region server and fetches them concurrently. Rows that do not exist come
+     * back as empty results. A get that fails after retries fails the whole batch, so an unreachable region is never
+     * reported as missing rows. Results are in the same order as the gets.
+     */
+    private Result[] multiGet(final Table table, List<Get> gets) throws IOException {
+        final Object[] batchResults = new Object[gets.size()];
+        try (org.apache.hadoop.hbase.client.Table hTable = tableWrapper.getTable(table)) {
+            hTable.batch(gets, batchResults);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new InterruptedIOException("Interrupted reading table: " + table.getName());
+        }
+        final Result[] results = new Result[gets.size()];
+        for (int i = 0; i < batchResults.length; i++) {
+            if (batchResults[i] instanceof Result) {
+                results[i] = (Result) batchResults[i];
+            }
+        }
+        return results;
+    }
+
+    private Document readDocument(Result result, String id) throws IOException {
+        byte[] payload = result.getValue(COLUMN_FAMILY, PAYLOAD_FIELD_NAME);
+        if (null != payload) {
+            return compactCodec.decode(id, payload);
+        }
+        byte[] data = result.getValue(COLUMN_FAMILY, DOCUMENT_FIELD_NAME);
+        byte[] metadata = result.getValue(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME);
+        byte[] timestamp = result.getValue(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME);
+        long time = Bytes.toLong(timestamp);
+        DocumentMetadata documentMetadata = (null != metadata) ? mapper.readValue(metadata, DocumentMetadata.class) : null;
+        return new Document(id, time, documentMetadata, mapper.readTree(data));
+    }
+
     @VisibleForTesting
-    public Put getPutForDocument(Document document) throws JsonProcessingException {
+    public Put getPutForDocument(Document document) throws IOException {
+        return getPut(new SavedDocument(document, serialize(document)));
+    }
+
+    /**
+     * @return json of the document, null if documents are written as smile
+     */
+    private SerializedDocument serialize(Document document) throws JsonProcessingException {
+        return payloadFormat == HbasePayloadFormat.SMILE ? null : serializer.serialize(document);
+    }
+
+    private Put getPut(SavedDocument savedDocument) throws IOException {
+        Document document = savedDocument.getDocument();
+        SerializedDocument serializedDocument = savedDocument.getSerialized();
+        if (null == serializedDocument) {
+            return new Put(Bytes.toBytes(document.getMetadata()
+                    .getRawStorageId())).addColumn(COLUMN_FAMILY, PAYLOAD_FIELD_NAME, compactCodec.encode(document));
+        }
         return new Put(Bytes.toBytes(document.getMetadata()
-                .getRawStorageId())).addColumn(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME,
-                mapper.writeValueAsBytes(document.getMetadata())
-        )
-                .addColumn(COLUMN_FAMILY, DOCUMENT_FIELD_NAME, mapper.writeValueAsBytes(document.getData()))
+                .getRawStorageId())).addColumn(COLUMN_FAMILY, DOCUMENT_META_FIELD_NAME, serializedDocument.getMetadata())
+                .addColumn(COLUMN_FAMILY, DOCUMENT_FIELD_NAME, serializedDocument.getData())
                 .addColumn(COLUMN_FAMILY, TIMESTAMP_FIELD_NAME, Bytes.toBytes(document.getTimestamp()))
-                .addColumn(COLUMN_FAMILY, DATE_FIELD_NAME, mapper.writeValueAsBytes(document.getDate()));
+                .addColumn(COLUMN_FAMILY, DATE_FIELD_NAME, serializedDocument.getDate());
+    }
+
+    private Put getIdIndexPut(Table table, Document translatedDocument) {
+        return new Put(getIdIndexRowKey(table, translatedDocument.getMetadata()
+                .getId())).addColumn(COLUMN_FAMILY, INDEXED_ID_FIELD_NAME, Bytes.toBytes(translatedDocument.getId()));
+    }
+
+    private byte[] getIdIndexRowKey(Table table, String id) {
+        return Bytes.toBytes(translator.generateScalableKey(String.format("%s:%s:%s", ID_INDEX_ROW_PREFIX,
+                table.getName(), id)));
     }
 
     @Override
@@ -50,6 +50,13 @@ public class HbaseConfig {
 
     private String rawKeyVersion = "2.0";
 
+    private HbasePayloadFormat payloadFormat = HbasePayloadFormat.JSON;
+
+    @Min(1)
+    private int kerberosReloginIntervalSeconds = 60;
+
+    private boolean idIndexEnabled = false;
+
     @NotNull
     @NotEmpty
     private String tableName;
@@ -181,4 +188,28 @@ public class HbaseConfig {
     public void setNumBuckets(short numBuckets) {
         this.numBuckets = numBuckets;
     }
+
+    public HbasePayloadFormat getPayloadFormat() {
+        return payloadFormat;
+    }
+
+    public void setPayloadFormat(HbasePayloadFormat payloadFormat) {
+        this.payloadFormat = payloadFormat;
+    }
+
+    public int getKerberosReloginIntervalSeconds() {
+        return kerberosReloginIntervalSeconds;
+    }
+
+    public void setKerberosReloginIntervalSeconds(int kerberosReloginIntervalSeconds) {
+        this.kerberosReloginIntervalSeconds = kerberosReloginIntervalSeconds;
+    }
+
+    public boolean isIdIndexEnabled() {
+        return idIndexEnabled;
+    }
+
+    public void setIdIndexEnabled(boolean idIndexEnabled) {
+        this.idIndexEnabled = idIndexEnabled;
+    }
 }
@@ -0,0 +1,16 @@
+package com.flipkart.foxtrot.core.datastore.impl.hbase;
+
+/**
+ * Format in which documents are written to HBase. Rows in either format can always be read back.
+ */
+public enum HbasePayloadFormat {
+    /**
+     * Data, metadata, timestamp and date in separate json cells
+     */
+    JSON,
+
+    /**
+     * A single versioned cell holding binary metadata and smile encoded data
+     */
+    SMILE
+}
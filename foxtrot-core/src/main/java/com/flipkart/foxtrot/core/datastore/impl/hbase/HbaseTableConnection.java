@@ -18,6 +18,7 @@ package com.flipkart.foxtrot.core.datastore.impl.hbase;
 import com.flipkart.foxtrot.common.Table;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.util.TableUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.dropwizard.lifecycle.Managed;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -36,6 +37,10 @@ import ru.vyarus.dropwizard.guice.module.installer.order.Order;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -51,9 +56,12 @@ public class HbaseTableConnection implements Managed {
     private static final String DEFAULT_FAMILY_NAME = "d";
 
     private final HbaseConfig hbaseConfig;
+    private final ConcurrentMap<String, TableName> tableNames = new ConcurrentHashMap<>();
+    private final Object adminLock = new Object();
     private Configuration configuration;
-    private Connection connection;
+    private volatile Connection connection;
     private Admin hBaseAdmin;
+    private ScheduledExecutorService kerberosRefresher;
 
     @Inject
     public HbaseTableConnection(Configuration configuration, HbaseConfig hbaseConfig) {
@@ -61,34 +69,37 @@ public class HbaseTableConnection implements Managed {
         this.hbaseConfig = hbaseConfig;
     }
 
-    public synchronized org.apache.hadoop.hbase.client.Table getTable(final Table table) {
+    /**
+     * Table handles are lightweight and not thread safe, so a new one is handed out on every call. No lock is taken
+     * here; kerberos tickets are renewed in the background instead of on the calling thread.
+     */
+    public org.apache.hadoop.hbase.client.Table getTable(final Table table) {
         try {
-            if (hbaseConfig.isSecure() && UserGroupInformation.isSecurityEnabled()) {
-                UserGroupInformation.getCurrentUser()
-                        .reloginFromKeytab();
-            }
-            return connection.getTable(TableName.valueOf(TableUtil.getTableName(hbaseConfig, table)));
+            return connection.getTable(getTableName(table));
         } catch (Exception e) {
             throw FoxtrotExceptions.createConnectionException(table, e);
         }
     }
 
-    public synchronized boolean isTableAvailable(final Table table) throws IOException {
-        String tableName = TableUtil.getTableName(hbaseConfig, table);
-        return hBaseAdmin.isTableAvailable(TableName.valueOf(tableName));
+    public boolean isTableAvailable(final Table table) throws IOException {
+        synchronized (adminLock) {
+            return hBaseAdmin.isTableAvailable(getTableName(table));
+        }
     }
 
-    public synchronized void createTable(final Table table) throws IOException {
+    public void createTable(final Table table) throws IOException {
         HTableDescriptor hTableDescriptor = constructHTableDescriptor(table);
         byte[][] splits = new RegionSplitter.HexStringSplit().split(table.getDefaultRegions());
-        hBaseAdmin.createTable(hTableDescriptor, splits);
+        synchronized (adminLock) {
+            hBaseAdmin.createTable(hTableDescriptor, splits);
+        }
     }
 
-    public synchronized void updateTable(final Table table) throws IOException {
-        String tableName = TableUtil.getTableName(hbaseConfig, table);
-
+    public void updateTable(final Table table) throws IOException {
         HTableDescriptor hTableDescriptor = constructHTableDescriptor(table);
-        hBaseAdmin.modifyTable(TableName.valueOf(tableName), hTableDescriptor);
+        synchronized (adminLock) {
+            hBaseAdmin.modifyTable(getTableName(table), hTableDescriptor);
+        }
     }
 
     public String getHBaseTableName(final Table table) {
@@ -101,11 +112,17 @@ public class HbaseTableConnection implements Managed {
         Configuration configuration = HBaseUtil.create(hbaseConfig);
         connection = ConnectionFactory.createConnection(configuration);
         this.hBaseAdmin = connection.getAdmin();
+        if (hbaseConfig.isSecure() && UserGroupInformation.isSecurityEnabled()) {
+            startKerberosRefresher();
+        }
         logger.info("Started HBase Connection");
     }
 
     @Override
     public void stop() throws Exception {
+        if (null != kerberosRefresher) {
+            kerberosRefresher.shutdownNow();
+        }
         connection.close();
         hBaseAdmin.close();
     }
@@ -114,6 +131,26 @@ public class HbaseTableConnection implements Managed {
         return hbaseConfig;
     }
 
+    private TableName getTableName(final Table table) {
+        return tableNames.computeIfAbsent(TableUtil.getTableName(hbaseConfig, table), TableName::valueOf);
+    }
+
+    private void startKerberosRefresher() {
+        kerberosRefresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("hbase-kerberos-refresher-%d")
+                .setDaemon(true)
+                .build());
+        long interval = hbaseConfig.getKerberosReloginIntervalSeconds();
+        kerberosRefresher.scheduleWithFixedDelay(() -> {
+            try {
+                UserGroupInformation.getLoginUser()
+                        .checkTGTAndReloginFromKeytab();
+            } catch (Exception e) {
+                logger.error("Error refreshing kerberos ticket", e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
     private HTableDescriptor constructHTableDescriptor(final Table table) {
         String tableName = TableUtil.getTableName(hbaseConfig, table);
 
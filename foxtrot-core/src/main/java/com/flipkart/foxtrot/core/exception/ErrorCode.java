@@ -43,6 +43,7 @@ public enum ErrorCode {
     AUTH_TOKEN_EXCEPTION,
 
     CONSOLE_QUERY_BLOCKED,
+    QUERY_REJECTED,
 
     HBASE_REGIONS_EXTRACTION_FAILURE,
     HBASE_REGIONS_MERGE_FAILURE
@@ -94,4 +94,8 @@ public class FoxtrotExceptions {
     public static AuthorizationException createAuthorizationException(ActionRequest actionRequest, Exception e) {
         return new AuthorizationException(actionRequest, e);
     }
+
+    public static QueryRejectedException createQueryRejectedException(ActionRequest actionRequest, String reason) {
+        return new QueryRejectedException(actionRequest, reason);
+    }
 }
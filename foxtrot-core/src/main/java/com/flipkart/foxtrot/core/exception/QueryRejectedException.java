@@ -0,0 +1,33 @@
+package com.flipkart.foxtrot.core.exception;
+
+import com.flipkart.foxtrot.common.ActionRequest;
+import com.google.common.collect.Maps;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Thrown when the query scheduler can not admit a query in time
+ */
+@Getter
+public class QueryRejectedException extends FoxtrotException {
+
+    private static final long serialVersionUID = -8591567152701424690L;
+
+    private final ActionRequest actionRequest;
+    private final String reason;
+
+    public QueryRejectedException(ActionRequest actionRequest, String reason) {
+        super(ErrorCode.QUERY_REJECTED, "Query rejected due to high load. Kindly retry after sometime");
+        this.actionRequest = actionRequest;
+        this.reason = reason;
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = Maps.newHashMap();
+        map.put("request", this.actionRequest);
+        map.put("reason", this.reason);
+        return map;
+    }
+}
@@ -18,6 +18,8 @@ public class ActionEvaluationResponse {
     private final FoxtrotException exception;
     private final long elapsedTime;
     private final boolean cached;
+    // Key the response was looked up with, null if the request does not use the cache
+    private final String cacheKey;
 
     private ActionEvaluationResponse(
             Action executedAction,
@@ -25,13 +27,15 @@ public class ActionEvaluationResponse {
             ActionResponse response,
             FoxtrotException exception,
             long elapsedTime,
-            boolean cached) {
+            boolean cached,
+            String cacheKey) {
         this.executedAction = executedAction;
         this.request = request;
         this.response = response;
         this.exception = exception;
         this.elapsedTime = elapsedTime;
         this.cached = cached;
+        this.cacheKey = cacheKey;
     }
 
     public static ActionEvaluationResponse success(
@@ -39,15 +43,17 @@ public class ActionEvaluationResponse {
             final ActionRequest request,
             final ActionResponse response,
             long elapsedTime,
-            boolean cached) {
-        return new ActionEvaluationResponse(executedAction, request, response, null, elapsedTime, cached);
+            boolean cached,
+            String cacheKey) {
+        return new ActionEvaluationResponse(executedAction, request, response, null, elapsedTime, cached, cacheKey);
     }
 
     public static ActionEvaluationResponse failure(
             final Action executedAction,
             final ActionRequest request,
             final FoxtrotException exception,
-            long elapsedTime) {
-        return new ActionEvaluationResponse(executedAction, request, null, exception, elapsedTime, false);
+            long elapsedTime,
+            String cacheKey) {
+        return new ActionEvaluationResponse(executedAction, request, null, exception, elapsedTime, false, cacheKey);
     }
 }
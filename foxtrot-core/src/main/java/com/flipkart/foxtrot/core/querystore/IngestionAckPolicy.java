@@ -0,0 +1,16 @@
+package com.flipkart.foxtrot.core.querystore;
+
+/**
+ * Decides when an asynchronous ingestion call is acknowledged to the caller
+ */
+public enum IngestionAckPolicy {
+    /**
+     * Acknowledge as soon as documents are durable in the data store. Indexing continues in the background.
+     */
+    DATA_STORE,
+
+    /**
+     * Acknowledge only after documents have been written to both data store and query store
+     */
+    QUERY_STORE
+}
@@ -0,0 +1,110 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.core.cache.Cache;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import com.flipkart.foxtrot.core.querystore.impl.HazelcastConnection;
+import com.flipkart.foxtrot.core.util.MetricUtil;
+import com.hazelcast.map.IMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/***
+ Makes sure identical queries arriving together are executed only once. The first caller for a cache key runs the
+ query, callers arriving while it is running wait for it and share its response or failure.
+ ***/
+@Slf4j
+public class QueryCoalescer {
+    private static final String LOCK_MAP_NAME = "query-coalescing-locks";
+
+    private final QueryCoalescingConfig config;
+    private final HazelcastConnection hazelcastConnection;
+    private final Map<String, CompletableFuture<ActionResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public QueryCoalescer(QueryCoalescingConfig config, HazelcastConnection hazelcastConnection) {
+        this.config = config;
+        this.hazelcastConnection = hazelcastConnection;
+    }
+
+    public ActionResponse execute(String opcode, String cacheKey, Cache cache, Supplier<ActionResponse> loader) {
+        if (!config.isEnabled() || null == cacheKey) {
+            return loader.get();
+        }
+        CompletableFuture<ActionResponse> future = new CompletableFuture<>();
+        CompletableFuture<ActionResponse> running = inFlight.putIfAbsent(cacheKey, future);
+        if (null != running) {
+            log.info("Coalescing query for key: {}", cacheKey);
+            MetricUtil.getInstance()
+                    .registerActionCoalesced(opcode);
+            return await(running);
+        }
+        try {
+            ActionResponse response = config.isClusterWide() && null != cache && null != hazelcastConnection
+                                      ? executeClusterWide(opcode, cacheKey, cache, loader)
+                                      : loader.get();
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    /***
+     The response is put in the cache before the lock is released, so that nodes waiting on the lock find it there.
+     A node that can not get the lock in time runs the query itself.
+     ***/
+    private ActionResponse executeClusterWide(String opcode, String cacheKey, Cache cache,
+                                              Supplier<ActionResponse> loader) {
+        IMap<String, Boolean> locks = hazelcastConnection.getHazelcast()
+                .getMap(LOCK_MAP_NAME);
+        boolean locked = false;
+        try {
+            locked = locks.tryLock(cacheKey, 0, TimeUnit.MILLISECONDS, config.getClusterLockLeaseTimeInMillis(),
+                    TimeUnit.MILLISECONDS);
+            if (!locked) {
+                locked = locks.tryLock(cacheKey, config.getClusterWaitTimeInMillis(), TimeUnit.MILLISECONDS,
+                        config.getClusterLockLeaseTimeInMillis(), TimeUnit.MILLISECONDS);
+                ActionResponse cachedResponse = locked ? cache.get(cacheKey) : null;
+                if (null != cachedResponse) {
+                    log.info("Coalescing query with another node for key: {}", cacheKey);
+                    MetricUtil.getInstance()
+                            .registerActionCoalesced(opcode);
+                    return cachedResponse;
+                }
+            }
+            ActionResponse response = loader.get();
+            if (locked && null != response) {
+                cache.put(cacheKey, response);
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            return loader.get();
+        } finally {
+            if (locked) {
+                locks.unlock(cacheKey);
+            }
+        }
+    }
+
+    private ActionResponse await(CompletableFuture<ActionResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -15,24 +15,32 @@
  */
 package com.flipkart.foxtrot.core.querystore;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.foxtrot.common.ActionRequest;
 import com.flipkart.foxtrot.common.ActionResponse;
 import com.flipkart.foxtrot.common.ActionValidationResponse;
 import com.flipkart.foxtrot.core.cache.Cache;
-import com.flipkart.foxtrot.core.cache.CacheManager;
 import com.flipkart.foxtrot.core.common.Action;
 import com.flipkart.foxtrot.core.common.AsyncDataToken;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotException;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
+import com.flipkart.foxtrot.core.util.MetricUtil;
 import com.google.common.base.Stopwatch;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -46,15 +54,38 @@ public class QueryExecutor {
     private final AnalyticsLoader analyticsLoader;
     private final ExecutorService executorService;
     private final List<ActionExecutionObserver> executionObservers;
+    private final QueryCoalescer queryCoalescer;
+    private final QueryRefresher queryRefresher;
 
-    @Inject
     public QueryExecutor(
             AnalyticsLoader analyticsLoader,
             ExecutorService executorService,
             List<ActionExecutionObserver> executionObservers) {
+        this(analyticsLoader, executorService, executionObservers,
+                new QueryCoalescer(new QueryCoalescingConfig(), null));
+    }
+
+    public QueryExecutor(
+            AnalyticsLoader analyticsLoader,
+            ExecutorService executorService,
+            List<ActionExecutionObserver> executionObservers,
+            QueryCoalescer queryCoalescer) {
+        this(analyticsLoader, executorService, executionObservers, queryCoalescer,
+                new QueryRefresher(new RefreshAheadConfig()));
+    }
+
+    @Inject
+    public QueryExecutor(
+            AnalyticsLoader analyticsLoader,
+            ExecutorService executorService,
+            List<ActionExecutionObserver> executionObservers,
+            QueryCoalescer queryCoalescer,
+            QueryRefresher queryRefresher) {
         this.analyticsLoader = analyticsLoader;
         this.executorService = executorService;
         this.executionObservers = executionObservers;
+        this.queryCoalescer = queryCoalescer;
+        this.queryRefresher = queryRefresher;
     }
 
     public <T extends ActionRequest> ActionValidationResponse validate(T request) {
@@ -62,48 +93,254 @@ public class QueryExecutor {
     }
 
     public <T extends ActionRequest> ActionResponse execute(T request) {
-        Stopwatch stopwatch = Stopwatch.createStarted();
         Action<T> action = null;
-        ActionEvaluationResponse evaluationResponse = null;
+        String cacheKey;
         try {
             action = resolve(request);
-            final ActionResponse cachedData = readCachedData(analyticsLoader.getCacheManager(), request, action);
+            cacheKey = usesCache(request) ? action.cacheKey() : null;
+        } catch (FoxtrotException e) {
+            notifyObserverPostExec(ActionEvaluationResponse.failure(action, request, e, 0, null));
+            throw e;
+        }
+        return execute(request, action, cacheKey);
+    }
+
+    /**
+     * @param cacheKey key computed once for this execution, null if the request does not use the cache
+     */
+    private <T extends ActionRequest> ActionResponse execute(T request, Action<T> action, String cacheKey) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        ActionEvaluationResponse evaluationResponse = null;
+        try {
+            final QueryRefresher.TrackedQuery trackedQuery = null != cacheKey && queryRefresher.isEnabled()
+                                                             ? queryRefresher.track(action.getRequestCacheKey())
+                                                             : null;
+            final ActionResponse cachedData = readCachedData(request, cacheKey);
             if (cachedData != null) {
                 cachedData.setFromCache(true);
+                if (null != trackedQuery && queryRefresher.startRefresh(trackedQuery)) {
+                    scheduleRefresh(request, trackedQuery);
+                }
                 evaluationResponse = ActionEvaluationResponse.success(
-                        action, request, cachedData, stopwatch.elapsed(TimeUnit.MILLISECONDS), true);
+                        action, request, cachedData, stopwatch.elapsed(TimeUnit.MILLISECONDS), true, cacheKey);
                 return cachedData;
             }
+            final ActionResponse staleData = null != trackedQuery
+                                             ? copy(queryRefresher.getStale(trackedQuery), ActionResponse.class)
+                                             : null;
+            if (null != staleData) {
+                log.info("Serving stale response for key: {}", cacheKey);
+                if (queryRefresher.startRefresh(trackedQuery)) {
+                    scheduleRefresh(request, trackedQuery);
+                }
+                staleData.setFromCache(true);
+                staleData.setStale(true);
+                MetricUtil.getInstance()
+                        .registerActionStale(request.getOpcode());
+                evaluationResponse = ActionEvaluationResponse.success(
+                        action, request, staleData, stopwatch.elapsed(TimeUnit.MILLISECONDS), true, cacheKey);
+                return staleData;
+            }
             notifyObserverPreExec(request);
-            final ActionResponse response = action.execute();
+            final ActionResponse response = executeCoalesced(request, action, cacheKey);
+            if (null != trackedQuery) {
+                queryRefresher.update(trackedQuery, response);
+            }
             evaluationResponse = ActionEvaluationResponse.success(
-                    action, request, response, stopwatch.elapsed(TimeUnit.MILLISECONDS), false);
+                    action, request, response, stopwatch.elapsed(TimeUnit.MILLISECONDS), false, cacheKey);
             return response;
 
         } catch (FoxtrotException e) {
             evaluationResponse = ActionEvaluationResponse.failure(
-                    action, request, e, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                    action, request, e, stopwatch.elapsed(TimeUnit.MILLISECONDS), cacheKey);
             throw e;
         } finally {
             notifyObserverPostExec(evaluationResponse);
         }
     }
 
+    /**
+     * Only cacheable actions are coalesced, their cache keys are the ones guaranteed to identify the response
+     */
+    private <T extends ActionRequest> ActionResponse executeCoalesced(T request, Action<T> action, String cacheKey) {
+        if (null == cacheKey) {
+            return action.execute();
+        }
+        final Cache cache = analyticsLoader.getCacheManager()
+                .getCacheFor(request.getOpcode());
+        return queryCoalescer.execute(request.getOpcode(), cacheKey, cache, action::execute);
+    }
+
+    /**
+     * Runs the request without blocking the calling thread on elasticsearch. Only the cache lookup happens on the
+     * calling thread, observers are notified and the future completes on the executor, never on an elasticsearch
+     * client thread. Misses are not coalesced or refreshed ahead, they go to elasticsearch. Work an executor rejects
+     * fails the future with a query rejected exception.
+     */
+    public <T extends ActionRequest> CompletableFuture<ActionResponse> executeNonBlocking(T request) {
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        Action<T> action = null;
+        String cacheKey = null;
+        final CompletableFuture<ActionResponse> future;
+        try {
+            action = resolve(request);
+            cacheKey = usesCache(request) ? action.cacheKey() : null;
+            final ActionResponse cachedData = readCachedData(request, cacheKey);
+            if (cachedData != null) {
+                cachedData.setFromCache(true);
+                notifyObserverPostExec(ActionEvaluationResponse.success(
+                        action, request, cachedData, stopwatch.elapsed(TimeUnit.MILLISECONDS), true, cacheKey));
+                return CompletableFuture.completedFuture(cachedData);
+            }
+            notifyObserverPreExec(request);
+            future = startAsync(action);
+        } catch (FoxtrotException e) {
+            notifyObserverPostExec(ActionEvaluationResponse.failure(
+                    action, request, e, stopwatch.elapsed(TimeUnit.MILLISECONDS), cacheKey));
+            CompletableFuture<ActionResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        final Action<T> executedAction = action;
+        final String executedCacheKey = cacheKey;
+        final BiFunction<ActionResponse, Throwable, ActionResponse> complete = (response, error) -> {
+            if (null == error) {
+                notifyObserverPostExec(ActionEvaluationResponse.success(executedAction, request, response,
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS), false, executedCacheKey));
+                return response;
+            }
+            final FoxtrotException exception = toFoxtrotException(request, error);
+            notifyObserverPostExec(ActionEvaluationResponse.failure(executedAction, request, exception,
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS), executedCacheKey));
+            throw exception;
+        };
+        CompletableFuture<ActionResponse> completion;
+        try {
+            completion = future.handleAsync(complete, executorService);
+        } catch (RejectedExecutionException e) {
+            completion = new CompletableFuture<>();
+            completion.completeExceptionally(e);
+        }
+        // Completion is already mapped to a foxtrot exception unless the executor rejected it
+        return completion.handle((response, error) -> {
+            if (null == error) {
+                return response;
+            }
+            final Throwable cause = unwrap(error);
+            if (cause instanceof FoxtrotException) {
+                throw (FoxtrotException) cause;
+            }
+            return complete.apply(null, cause);
+        });
+    }
+
+    private <T extends ActionRequest> CompletableFuture<ActionResponse> startAsync(Action<T> action) {
+        try {
+            return action.executeAsync();
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<ActionResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private FoxtrotException toFoxtrotException(ActionRequest request, Throwable error) {
+        final Throwable cause = unwrap(error);
+        if (cause instanceof FoxtrotException) {
+            return (FoxtrotException) cause;
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return reject(request);
+        }
+        return FoxtrotExceptions.createQueryExecutionException(request, cause instanceof Exception
+                                                                        ? (Exception) cause
+                                                                        : new RuntimeException(cause));
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && null != error.getCause()
+               ? error.getCause()
+               : error;
+    }
+
+    private FoxtrotException reject(ActionRequest request) {
+        log.warn("Rejecting query for opcode: {} reason: executor queue full", request.getOpcode());
+        MetricUtil.getInstance()
+                .registerQueryRejected(request.getOpcode());
+        return FoxtrotExceptions.createQueryRejectedException(request, "executor queue full");
+    }
+
+    /**
+     * Executes a copy of the request again on the executor and caches the response under the time bucket it completes
+     * in. The caller keeps using its own request, so the refresh preprocesses the copy.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends ActionRequest> void scheduleRefresh(T request, QueryRefresher.TrackedQuery trackedQuery) {
+        final T refreshRequest = copy(request, (Class<T>) request.getClass());
+        if (null == refreshRequest) {
+            queryRefresher.refreshFailed(trackedQuery);
+            return;
+        }
+        try {
+            executorService.submit(() -> {
+                try {
+                    final Action<T> action = resolve(refreshRequest);
+                    // Taken before execute() preprocesses the copy, so it matches the key readers look up
+                    final String requestCacheKey = action.getRequestCacheKey();
+                    final ActionResponse response = action.execute();
+                    analyticsLoader.getCacheManager()
+                            .getCacheFor(refreshRequest.getOpcode())
+                            .put(Action.bucketedCacheKey(requestCacheKey), response);
+                    queryRefresher.refreshed(trackedQuery, response);
+                } catch (Exception e) {
+                    log.warn("Error refreshing query for opcode: {}", refreshRequest.getOpcode(), e);
+                    queryRefresher.refreshFailed(trackedQuery);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Could not schedule query refresh for opcode: {}", request.getOpcode());
+            queryRefresher.refreshFailed(trackedQuery);
+        }
+    }
+
+    /**
+     * Deep copy through the mapper, for requests and responses that are shared with other threads
+     *
+     * @return the copy, null if the value is null or can not be copied
+     */
+    private <V> V copy(V value, Class<V> type) {
+        if (null == value) {
+            return null;
+        }
+        final ObjectMapper mapper = analyticsLoader.getObjectMapper();
+        try {
+            return mapper.readValue(mapper.writeValueAsBytes(value), type);
+        } catch (IOException e) {
+            log.warn("Error copying {}", type.getSimpleName(), e);
+            return null;
+        }
+    }
+
     public <T extends ActionRequest> AsyncDataToken executeAsync(T request) {
-        final Action action = resolve(request);
+        final Action<T> action = resolve(request);
         final String cacheKey = action.cacheKey();
         final AsyncDataToken dataToken = new AsyncDataToken(request.getOpcode(), cacheKey);
-        final ActionResponse response = readCachedData(analyticsLoader.getCacheManager(), request, action);
+        final String lookupKey = usesCache(request) ? cacheKey : null;
+        final ActionResponse response = readCachedData(request, lookupKey);
         if (null != response) {
             // If data exists in the cache nothing to do.. just return
             return dataToken;
         }
         //Otherwise schedule
-        executorService.submit(() -> {
-            final ActionResponse execute = execute(request);
-            analyticsLoader.getCacheManager().getCacheFor(dataToken.getAction())
-                    .put(dataToken.getKey(), execute);
-        });
+        try {
+            executorService.submit(() -> {
+                final ActionResponse execute = execute(request, action, lookupKey);
+                analyticsLoader.getCacheManager().getCacheFor(dataToken.getAction())
+                        .put(dataToken.getKey(), execute);
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject(request);
+        }
         return dataToken;
     }
 
@@ -132,19 +369,23 @@ public class QueryExecutor {
                 .forEach(actionExecutionObserver -> actionExecutionObserver.postExecution(evaluationResponse));
     }
 
-    private ActionResponse readCachedData(final CacheManager cacheManager,
-                                          final ActionRequest request,
-                                          final Action action) {
-        final Cache cache = cacheManager.getCacheFor(request.getOpcode());
-        if (null != cache && !request.isBypassCache()) {
-            final String cacheKey = action.cacheKey();
-            if (cache.has(cacheKey)) {
-                log.info("Cache hit for key: {}", cacheKey);
-                return cache.get(cacheKey);
-            } else {
-                log.info("Cache miss for key: {}", cacheKey);
-            }
+    private boolean usesCache(final ActionRequest request) {
+        return !request.isBypassCache() && null != analyticsLoader.getCacheManager()
+                .getCacheFor(request.getOpcode());
+    }
+
+    private ActionResponse readCachedData(final ActionRequest request, final String cacheKey) {
+        if (null == cacheKey) {
+            return null;
+        }
+        final ActionResponse cachedData = analyticsLoader.getCacheManager()
+                .getCacheFor(request.getOpcode())
+                .getIfPresent(cacheKey);
+        if (null != cachedData) {
+            log.info("Cache hit for key: {}", cacheKey);
+        } else {
+            log.info("Cache miss for key: {}", cacheKey);
         }
-        return null;
+        return cachedData;
     }
 }
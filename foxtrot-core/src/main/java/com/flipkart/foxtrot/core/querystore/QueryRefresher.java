@@ -0,0 +1,120 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/***
+ Tracks how often each cacheable query is requested, keyed on the action request cache key, and keeps the last
+ response of hot queries so that it can be served while the query is refreshed in the background.
+ ***/
+@Singleton
+public class QueryRefresher {
+
+    private final RefreshAheadConfig config;
+    private final Cache<String, TrackedQuery> trackedQueries;
+
+    @Inject
+    public QueryRefresher(RefreshAheadConfig config) {
+        this.config = config;
+        this.trackedQueries = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxTrackedQueries())
+                .expireAfterAccess(Math.max(config.getAccessWindowSeconds(), config.getMaxStaleSeconds()),
+                        TimeUnit.SECONDS)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /***
+     Counts an access to the query
+     @return the tracked state of the query
+     ***/
+    public TrackedQuery track(String requestKey) {
+        try {
+            TrackedQuery query = trackedQueries.get(requestKey, TrackedQuery::new);
+            query.recordAccess(System.currentTimeMillis(), TimeUnit.SECONDS.toMillis(config.getAccessWindowSeconds()));
+            return query;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /***
+     Accesses in the previous window count as well, so that queries do not go cold whenever a new window starts
+     ***/
+    public boolean isHot(TrackedQuery query) {
+        return Math.max(query.accesses, query.previousAccesses) >= config.getHotAccessThreshold();
+    }
+
+    /***
+     @return true if the query is hot, its last response is old enough and no refresh is running for it. The caller
+     that gets true owns the refresh and must call {@link #refreshed(TrackedQuery, ActionResponse)} or
+     {@link #refreshFailed(TrackedQuery)} when done.
+     ***/
+    public boolean startRefresh(TrackedQuery query) {
+        return isHot(query)
+                && System.currentTimeMillis() - query.refreshedAt >= TimeUnit.SECONDS.toMillis(
+                config.getRefreshAfterSeconds())
+                && query.refreshing.compareAndSet(false, true);
+    }
+
+    /***
+     @return the last response of a hot query, if it is recent enough to be served as stale
+     ***/
+    public ActionResponse getStale(TrackedQuery query) {
+        final ActionResponse response = query.lastResponse;
+        if (null == response || !isHot(query)
+                || System.currentTimeMillis() - query.refreshedAt > TimeUnit.SECONDS.toMillis(
+                config.getMaxStaleSeconds())) {
+            return null;
+        }
+        return response;
+    }
+
+    /***
+     Keeps a freshly executed response of the query, if it is hot
+     ***/
+    public void update(TrackedQuery query, ActionResponse response) {
+        if (isHot(query) && null != response) {
+            query.lastResponse = response;
+            query.refreshedAt = System.currentTimeMillis();
+        }
+    }
+
+    public void refreshed(TrackedQuery query, ActionResponse response) {
+        update(query, response);
+        query.refreshing.set(false);
+    }
+
+    public void refreshFailed(TrackedQuery query) {
+        query.refreshing.set(false);
+    }
+
+    public static final class TrackedQuery {
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private long windowStart;
+        private volatile int accesses;
+        private volatile int previousAccesses;
+        private volatile ActionResponse lastResponse;
+        private volatile long refreshedAt;
+
+        private synchronized void recordAccess(long now, long windowMillis) {
+            if (now - windowStart >= windowMillis) {
+                previousAccesses = now - windowStart < 2 * windowMillis ? accesses : 0;
+                windowStart = now;
+                accesses = 0;
+            }
+            accesses++;
+        }
+    }
+}
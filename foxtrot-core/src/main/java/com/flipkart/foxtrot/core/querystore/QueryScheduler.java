@@ -0,0 +1,243 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.ActionRequest;
+import com.flipkart.foxtrot.common.TableActionRequestVisitor;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
+import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.util.MetricUtil;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ Limits the number of analytics queries running against elasticsearch, overall, per opcode and per table. A query
+ waits for its permits at most the configured queue time and is rejected after that, or right away if too many queries
+ are already waiting. Semaphores are fair, so waiting queries are admitted in arrival order and a stream of cheap
+ queries can not starve an expensive one that needs several permits.
+ ***/
+@Slf4j
+@Singleton
+public class QueryScheduler {
+    private static final String GLOBAL_QUEUE = "global";
+
+    private final QuerySchedulerConfig config;
+    private final Semaphore globalPermits;
+    private final AtomicInteger waitingQueries = new AtomicInteger();
+    private final Map<String, Semaphore> opcodePermits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> tablePermits = new ConcurrentHashMap<>();
+    private volatile ExecutorService admissionExecutor;
+
+    @Inject
+    public QueryScheduler(QuerySchedulerConfig config) {
+        this.config = config;
+        this.globalPermits = new Semaphore(config.getMaxConcurrentQueries(), true);
+        if (config.isEnabled()) {
+            MetricUtil.getInstance()
+                    .registerQueryQueueDepth(GLOBAL_QUEUE, waitingQueries::get);
+        }
+    }
+
+    /***
+     Blocks till the query can run
+     @param estimatedCardinality estimated number of buckets in the response, 0 if unknown
+     @return permit to be closed once the query completes
+     ***/
+    public Permit admit(ActionRequest request, long estimatedCardinality) {
+        if (!config.isEnabled()) {
+            return Permit.NONE;
+        }
+        final List<Queue> queues = queues(request, estimatedCardinality);
+        enqueue(request);
+        return acquire(request, queues, deadline());
+    }
+
+    /***
+     Non blocking variant of {@link #admit(ActionRequest, long)}. The query waits for its permits on an admission
+     thread instead of the request thread, in the same fair queues as blocking admissions.
+     @param estimatedCardinality estimated number of buckets in the response, 0 if unknown
+     @return future of the permit, completes exceptionally if the query is rejected
+     ***/
+    public CompletableFuture<Permit> admitAsync(ActionRequest request, long estimatedCardinality) {
+        if (!config.isEnabled()) {
+            return CompletableFuture.completedFuture(Permit.NONE);
+        }
+        final List<Queue> queues = queues(request, estimatedCardinality);
+        final CompletableFuture<Permit> admission = new CompletableFuture<>();
+        try {
+            enqueue(request);
+        } catch (RuntimeException e) {
+            admission.completeExceptionally(e);
+            return admission;
+        }
+        final long deadline = deadline();
+        try {
+            admissionExecutor().execute(() -> {
+                try {
+                    final Permit permit = acquire(request, queues, deadline);
+                    if (!admission.complete(permit)) {
+                        permit.close();
+                    }
+                } catch (RuntimeException e) {
+                    admission.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            waitingQueries.decrementAndGet();
+            admission.completeExceptionally(reject(request, "admission stopped"));
+        }
+        return admission;
+    }
+
+    @VisibleForTesting
+    int getWaitingQueries() {
+        return waitingQueries.get();
+    }
+
+    private void enqueue(ActionRequest request) {
+        // Queries waiting on table or opcode permits count too, they are the hot spots the limit has to shed
+        if (waitingQueries.getAndIncrement() >= config.getMaxQueueLength()) {
+            waitingQueries.decrementAndGet();
+            throw reject(request, "queue full");
+        }
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getMaxQueueTimeInMillis());
+    }
+
+    private List<Queue> queues(ActionRequest request, long estimatedCardinality) {
+        final int weight = estimatedCardinality >= config.getExpensiveCardinalityThreshold()
+                           ? config.getExpensiveQueryWeight()
+                           : 1;
+        final List<Queue> queues = new ArrayList<>(3);
+        final Integer opcodeLimit = null == config.getMaxConcurrentQueriesPerOpcode()
+                                    ? null
+                                    : config.getMaxConcurrentQueriesPerOpcode()
+                                            .get(request.getOpcode());
+        if (null != opcodeLimit) {
+            queues.add(new Queue(opcodePermits.computeIfAbsent(request.getOpcode(),
+                    opcode -> newSemaphore("opcode." + opcode, opcodeLimit)), 1));
+        }
+        final String table = request.accept(new TableActionRequestVisitor());
+        if (null != table) {
+            final int tableLimit = config.getMaxConcurrentQueriesPerTable();
+            queues.add(new Queue(tablePermits.computeIfAbsent(table,
+                    name -> newSemaphore("table." + name, tableLimit)), Math.min(weight, tableLimit)));
+        }
+        queues.add(new Queue(globalPermits, Math.min(weight, config.getMaxConcurrentQueries())));
+        return queues;
+    }
+
+    /***
+     Takes the permits of all queues in order, waiting in each till the deadline. Leaves the queue either way.
+     ***/
+    private Permit acquire(ActionRequest request, List<Queue> queues, long deadline) {
+        final Permit permit = new Permit();
+        try {
+            for (Queue queue : queues) {
+                acquire(request, permit, queue, deadline);
+            }
+            return permit;
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        } finally {
+            waitingQueries.decrementAndGet();
+        }
+    }
+
+    private void acquire(ActionRequest request, Permit permit, Queue queue, long deadline) {
+        try {
+            if (!queue.semaphore.tryAcquire(queue.permits, Math.max(0, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS)) {
+                throw reject(request, "timed out in queue");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw reject(request, "interrupted in queue");
+        }
+        permit.held.push(new Held(queue.semaphore, queue.permits));
+    }
+
+    /***
+     One thread per waiting query, the queue length limit bounds the number of threads
+     ***/
+    private ExecutorService admissionExecutor() {
+        if (null == admissionExecutor) {
+            synchronized (this) {
+                if (null == admissionExecutor) {
+                    admissionExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                            .setNameFormat("query-admission-%d")
+                            .setDaemon(true)
+                            .build());
+                }
+            }
+        }
+        return admissionExecutor;
+    }
+
+    private Semaphore newSemaphore(String queue, int limit) {
+        Semaphore semaphore = new Semaphore(limit, true);
+        MetricUtil.getInstance()
+                .registerQueryQueueDepth(queue, semaphore::getQueueLength);
+        return semaphore;
+    }
+
+    private RuntimeException reject(ActionRequest request, String reason) {
+        log.warn("Rejecting query for opcode: {} reason: {}", request.getOpcode(), reason);
+        MetricUtil.getInstance()
+                .registerQueryRejected(request.getOpcode());
+        return FoxtrotExceptions.createQueryRejectedException(request, reason);
+    }
+
+    public static class Permit implements AutoCloseable {
+        private static final Permit NONE = new Permit();
+
+        private final Deque<Held> held = new ArrayDeque<>();
+
+        @Override
+        public void close() {
+            while (!held.isEmpty()) {
+                Held permits = held.pop();
+                permits.semaphore.release(permits.count);
+            }
+        }
+    }
+
+    private static final class Queue {
+        private final Semaphore semaphore;
+        private final int permits;
+
+        private Queue(Semaphore semaphore, int permits) {
+            this.semaphore = semaphore;
+            this.permits = permits;
+        }
+    }
+
+    private static final class Held {
+        private final Semaphore semaphore;
+        private final int count;
+
+        private Held(Semaphore semaphore, int count) {
+            this.semaphore = semaphore;
+            this.count = count;
+        }
+    }
+}
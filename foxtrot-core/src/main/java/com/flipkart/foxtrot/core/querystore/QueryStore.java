@@ -18,11 +18,14 @@ package com.flipkart.foxtrot.core.querystore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.common.TableFieldMapping;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -37,12 +40,26 @@ public interface QueryStore {
 
     void save(final String table, final List<Document> documents);
 
+    CompletableFuture<Void> saveAsync(final String table, final List<Document> documents, IngestionAckPolicy ackPolicy);
+
     Document get(final String table, final String id);
 
+    /**
+     * Same as {@link #get(String, String)}, narrowing the id lookup to the time range the document was ingested in
+     */
+    Document get(final String table, final String id, final Interval timeHint);
+
     List<Document> getAll(final String table, final List<String> ids);
 
+    List<Document> getAll(final String table, final List<String> ids, final Interval timeHint);
+
     List<Document> getAll(final String table, final List<String> ids, boolean bypassMetaLookup);
 
+    /**
+     * Same as {@link #getAll(String, List, boolean)} but reports ids missing in the data store instead of failing
+     */
+    MultiGetResult getAllAvailable(final String table, final List<String> ids, boolean bypassMetaLookup);
+
     void cleanupAll();
 
     void cleanup(final String table);
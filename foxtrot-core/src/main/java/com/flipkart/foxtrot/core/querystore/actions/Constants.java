@@ -31,7 +31,11 @@ public class Constants {
     public static final String FIELD_REPLACEMENT_REGEX = "[^a-zA-Z0-9\\-_]";
     public static final String FIELD_REPLACEMENT_VALUE = "_";
     public static final String SEPARATOR = "_--&--_";
-    public static final String CACHE_NAME_PREFIX = "cache-for-";
+    /**
+     * Versioned because values are stored as compressed bytes, nodes still running the previous version read the
+     * "cache-for-" maps as json strings during a rolling deploy
+     */
+    public static final String CACHE_NAME_PREFIX = "cache-v2-for-";
 
     private Constants() {
     }
@@ -1,6 +1,7 @@
 package com.flipkart.foxtrot.core.querystore.actions;
 
 import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.common.Period;
 import com.flipkart.foxtrot.common.count.CountRequest;
 import com.flipkart.foxtrot.common.count.CountResponse;
 import com.flipkart.foxtrot.common.query.Filter;
@@ -8,25 +9,28 @@ import com.flipkart.foxtrot.common.query.general.ExistsFilter;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
 import com.flipkart.foxtrot.common.visitor.CountPrecisionThresholdVisitorAdapter;
 import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.common.PeriodSelector;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsProvider;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchUtils;
 import com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
 import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-
-import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Created by rishabh.goyal on 02/11/14.
@@ -96,14 +100,52 @@ public class CountAction extends Action<CountRequest> {
         }
     }
 
+    /**
+     * Counts split by day run their searches on the completion executor, so that both paths answer alike
+     */
     @Override
-    public ActionResponse execute(CountRequest parameter) {
-        SearchRequest request = getRequestBuilder(parameter, Collections.emptyList());
+    public CompletableFuture<ActionResponse> executeAsync(CountRequest parameter) {
+        if (!parameter.isDistinct()) {
+            Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+            if (Utils.isBucketCacheable(getBucketCache(), parameter.getFilters(), Utils.DAILY_PARTIAL_FIELD, window)) {
+                return CompletableFuture.supplyAsync(() -> executeByDay(parameter, window), getCompletionExecutor());
+            }
+            CompletableFuture<ActionResponse> future = new CompletableFuture<>();
+            getConnection().getClient()
+                    .countAsync(getCountRequest(parameter), RequestOptions.DEFAULT,
+                            new ActionListener<org.elasticsearch.client.core.CountResponse>() {
+                                @Override
+                                public void onResponse(org.elasticsearch.client.core.CountResponse response) {
+                                    future.complete(new CountResponse(response.getCount()));
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    future.completeExceptionally(
+                                            FoxtrotExceptions.createQueryExecutionException(parameter, e));
+                                }
+                            });
+            return future;
+        }
+        return searchAsync(getRequestBuilder(parameter, Collections.emptyList()), parameter);
+    }
 
+    @Override
+    public ActionResponse execute(CountRequest parameter) {
         try {
+            if (!parameter.isDistinct()) {
+                Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+                if (Utils.isBucketCacheable(getBucketCache(), parameter.getFilters(), Utils.DAILY_PARTIAL_FIELD,
+                        window)) {
+                    return executeByDay(parameter, window);
+                }
+                return new CountResponse(getConnection().getClient()
+                        .count(getCountRequest(parameter), RequestOptions.DEFAULT)
+                        .getCount());
+            }
             SearchResponse response = getConnection()
                     .getClient()
-                    .search(request, RequestOptions.DEFAULT);
+                    .search(getRequestBuilder(parameter, Collections.emptyList()), RequestOptions.DEFAULT);
             return getResponse(response, parameter);
         } catch (IOException e) {
             throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
@@ -111,15 +153,69 @@ public class CountAction extends Action<CountRequest> {
         }
     }
 
+    /**
+     * Counts of closed days are served from cached daily partials, only the open days are counted again
+     */
+    private ActionResponse executeByDay(CountRequest parameter, Interval window) {
+        NavigableMap<Long, Long> partials = getBucketCache().fetch(getDailyPartialSeriesKey(), Period.days, window,
+                (from, to) -> {
+                    SearchRequest query = new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(),
+                            parameter, Utils.bucketRangeInterval(window, from, to), getIndexCatalog()))
+                            .indicesOptions(Utils.indicesOptions())
+                            .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                            .source(Utils.aggregationOnlySource()
+                                    .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter,
+                                            Utils.bucketRangeFilters(Utils.DAILY_PARTIAL_FIELD, from, to),
+                                            getQueryNormalizationConfig()))
+                                    .aggregation(Utils.buildDailyPartialAggregation(null)));
+                    try {
+                        SearchResponse response = getConnection().getClient()
+                                .search(query, RequestOptions.DEFAULT);
+                        return Utils.readDailyPartials(response.getAggregations(), Histogram.Bucket::getDocCount);
+                    } catch (IOException e) {
+                        throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
+                    }
+                });
+        long count = 0;
+        for (Long partial : partials.values()) {
+            count += partial;
+        }
+        return new CountResponse(count);
+    }
+
+    private String getDailyPartialSeriesKey() {
+        CountRequest query = getParameter();
+        return String.format("count-%s-%s-%d", query.getTable(), query.getField(),
+                Utils.nonTemporalFilterHash(query.getFilters()));
+    }
+
+    /**
+     * Plain counts go to the count api, which only counts matching documents and skips the search fetch phase.
+     * The search built by {@link #getRequestBuilder(CountRequest, List)} is still used inside multi searches.
+     */
+    private org.elasticsearch.client.core.CountRequest getCountRequest(CountRequest parameter) {
+        try {
+            return new org.elasticsearch.client.core.CountRequest(
+                    ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
+                    .indicesOptions(Utils.indicesOptions())
+                    .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, Collections.emptyList(),
+                            getQueryNormalizationConfig()));
+        } catch (Exception e) {
+            throw FoxtrotExceptions.queryCreationException(parameter, e);
+        }
+    }
+
     @Override
     public SearchRequest getRequestBuilder(CountRequest parameter, List<Filter> extraFilters) {
         if (parameter.isDistinct()) {
             try {
-                return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+                return new SearchRequest(
+                        ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                         .indicesOptions(Utils.indicesOptions())
-                        .source(new SearchSourceBuilder()
-                                .size(QUERY_SIZE)
-                                .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters))
+                        .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                        .source(Utils.aggregationOnlySource()
+                                .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                        getQueryNormalizationConfig()))
                                 .aggregation(Utils.buildCardinalityAggregation(parameter.getField(),
                                         parameter.accept(new CountPrecisionThresholdVisitorAdapter(
                                                 elasticsearchTuningConfig.getPrecisionThreshold())))))
@@ -129,17 +225,24 @@ public class CountAction extends Action<CountRequest> {
             }
         } else {
             try {
-                return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+                return new SearchRequest(
+                        ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                         .indicesOptions(Utils.indicesOptions())
-                        .source(new SearchSourceBuilder()
-                                .size(QUERY_SIZE)
-                                .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters)));
+                        .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                        .source(Utils.hitCountOnlySource()
+                                .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                        getQueryNormalizationConfig())));
             } catch (Exception e) {
                 throw FoxtrotExceptions.queryCreationException(parameter, e);
             }
         }
     }
 
+    @Override
+    protected ActionResponse emptyResponse(CountRequest parameter) {
+        return new CountResponse(0);
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, CountRequest parameter) {
         if (parameter.isDistinct()) {
@@ -19,7 +19,6 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,11 +27,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
-
 /**
  * Created by rishabh.goyal on 17/11/14.
  */
@@ -102,6 +100,17 @@ public class DistinctAction extends Action<DistinctRequest> {
         }
     }
 
+    @Override
+    public CompletableFuture<ActionResponse> executeAsync(DistinctRequest request) {
+        SearchRequest query;
+        try {
+            query = getRequestBuilder(request, Collections.emptyList());
+        } catch (Exception e) {
+            throw FoxtrotExceptions.queryCreationException(request, e);
+        }
+        return searchAsync(query, request);
+    }
+
     @Override
     public ActionResponse execute(DistinctRequest request) {
         SearchRequest query;
@@ -125,11 +134,12 @@ public class DistinctAction extends Action<DistinctRequest> {
     @Override
     public SearchRequest getRequestBuilder(DistinctRequest request, List<Filter> extraFilters) {
         try {
-            return new SearchRequest(ElasticsearchUtils.getIndices(request.getTable(), request))
+            return new SearchRequest(ElasticsearchUtils.getIndices(request.getTable(), request, getIndexCatalog()))
                     .indicesOptions(Utils.indicesOptions())
-                    .source(new SearchSourceBuilder()
-                            .query(ElasticsearchQueryUtils.translateFilter(request, extraFilters))
-                            .size(QUERY_SIZE)
+                    .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                    .source(Utils.aggregationOnlySource()
+                            .query(ElasticsearchQueryUtils.translateAggregationFilter(request, extraFilters,
+                                    getQueryNormalizationConfig()))
                             .aggregation(Utils.buildTermsAggregation(
                                     request.getNesting(), Sets.newHashSet(), elasticsearchTuningConfig.getAggregationSize()))
                             .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS)));
@@ -139,6 +149,11 @@ public class DistinctAction extends Action<DistinctRequest> {
         }
     }
 
+    @Override
+    protected ActionResponse emptyResponse(DistinctRequest parameter) {
+        return new DistinctResponse(new ArrayList<>(), new ArrayList<>());
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, DistinctRequest parameter) {
         Aggregations aggregations = ((SearchResponse) response).getAggregations();
@@ -23,11 +23,13 @@ import com.flipkart.foxtrot.common.query.ResultSort;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
 import com.flipkart.foxtrot.core.common.Action;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsProvider;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchUtils;
 import com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils;
+import com.flipkart.foxtrot.core.util.MetricUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -138,6 +140,15 @@ public class FilterAction extends Action<Query> {
         return searchRequest;
     }
 
+    @Override
+    protected ActionResponse emptyResponse(Query parameter) {
+        return QueryResponse
+                .builder()
+                .documents(Collections.emptyList())
+                .totalHits(0)
+                .build();
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, Query parameter) {
         List<String> ids = new ArrayList<>();
@@ -152,15 +163,33 @@ public class FilterAction extends Action<Query> {
                     .totalHits(0)
                     .build();
         }
+        MultiGetResult documents = getDocuments(parameter, ids);
         return QueryResponse
                 .builder()
-                .documents(getQueryStore()
-                        .getAll(parameter.getTable(), ids, true))
+                .documents(documents.getDocuments())
+                .missingIds(documents.getMissingIds())
                 .totalHits(searchHits.getTotalHits())
                 .build();
     }
 
 
+    /**
+     * Documents indexed but not present in the data store are left out of the page instead of failing the query, and
+     * are reported in the response. Reads that fail still fail the query.
+     */
+    private MultiGetResult getDocuments(Query parameter, List<String> ids) {
+        MultiGetResult result = getQueryStore().getAllAvailable(parameter.getTable(), ids, true);
+        if (!result.getMissingIds()
+                .isEmpty()) {
+            logger.warn("Skipping {} documents missing from the data store for table: {}", result.getMissingIds()
+                    .size(), parameter.getTable());
+            MetricUtil.getInstance()
+                    .registerDocumentsMissing(parameter.getTable(), result.getMissingIds()
+                            .size());
+        }
+        return result;
+    }
+
     private SearchRequest getScrollRequestBuilder(Query parameter, List<Filter> extraFilters) {
         SearchRequest searchRequest = getSearchRequest(parameter, extraFilters);
         searchRequest.scroll(TimeValue.timeValueSeconds(elasticsearchTuningConfig.getScrollTimeInSeconds()));
@@ -168,7 +197,7 @@ public class FilterAction extends Action<Query> {
     }
 
     private SearchRequest getSearchRequest(Query parameter, List<Filter> extraFilters) {
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
                 .types(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
                 .searchType(SearchType.QUERY_THEN_FETCH)
@@ -224,10 +253,11 @@ public class FilterAction extends Action<Query> {
                     .moreDataAvailable(false)
                     .build();
         }
+        MultiGetResult documents = getDocuments(parameter, ids);
         return QueryResponse
                 .builder()
-                .documents(getQueryStore()
-                        .getAll(parameter.getTable(), ids, true))
+                .documents(documents.getDocuments())
+                .missingIds(documents.getMissingIds())
                 .totalHits(totalHits)
                 .scrollId(scrollId)
                 .moreDataAvailable(StringUtils.isNotEmpty(scrollId) ? true : false)
@@ -17,6 +17,7 @@ package com.flipkart.foxtrot.core.querystore.actions;
 
 import com.flipkart.foxtrot.common.ActionResponse;
 import com.flipkart.foxtrot.common.FieldMetadata;
+import com.flipkart.foxtrot.common.Period;
 import com.flipkart.foxtrot.common.Table;
 import com.flipkart.foxtrot.common.TableFieldMapping;
 import com.flipkart.foxtrot.common.estimation.*;
@@ -59,19 +60,18 @@ import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.aggregations.metrics.cardinality.CardinalityAggregationBuilder;
 import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.flipkart.foxtrot.core.querystore.actions.Utils.statsString;
-import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -86,6 +86,7 @@ public class GroupAction extends Action<GroupRequest> {
     private static final long MIN_ESTIMATION_THRESHOLD = 1000;
     private static final double PROBABILITY_CUT_OFF = 0.5;
     private final ElasticsearchTuningConfig elasticsearchTuningConfig;
+    private long estimatedCardinality;
 
     public GroupAction(GroupRequest parameter, AnalyticsLoader analyticsLoader) {
         super(parameter, analyticsLoader);
@@ -97,6 +98,14 @@ public class GroupAction extends Action<GroupRequest> {
         getParameter().setTable(ElasticsearchUtils.getValidTableName(getParameter().getTable()));
     }
 
+    /**
+     * Set by the cardinality check, stays 0 when the check is disabled or skipped for small queries
+     */
+    @Override
+    public long getEstimatedCardinality() {
+        return estimatedCardinality;
+    }
+
     @Override
     public String getMetricKey() {
         return getParameter().getTable();
@@ -171,8 +180,29 @@ public class GroupAction extends Action<GroupRequest> {
 
     }
 
+    /**
+     * Groups split by day run their searches on the completion executor, so that both paths answer alike
+     */
+    @Override
+    public CompletableFuture<ActionResponse> executeAsync(GroupRequest parameter) {
+        if (isSplitByDay(parameter, new PeriodSelector(parameter.getFilters()).analyze())) {
+            return CompletableFuture.supplyAsync(() -> execute(parameter), getCompletionExecutor());
+        }
+        return searchAsync(getRequestBuilder(parameter, Collections.emptyList()), parameter);
+    }
+
     @Override
     public ActionResponse execute(GroupRequest parameter) {
+        Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+        if (isSplitByDay(parameter, window)) {
+            try {
+                return executeByDay(parameter, window);
+            } catch (TruncatedPartialException e) {
+                log.debug("Daily partials truncated for group on table: {}, running over whole window",
+                        parameter.getTable());
+                getBucketCache().exclude(getDailyPartialSeriesKey());
+            }
+        }
         SearchRequest query = getRequestBuilder(parameter, Collections.emptyList());
         try {
             SearchResponse response = getConnection()
@@ -184,17 +214,133 @@ public class GroupAction extends Action<GroupRequest> {
         }
     }
 
+    /**
+     * Plain document counts add up across days, so groups over closed days are served from cached daily partials
+     * and only the open days are aggregated again. Groups estimated to have more terms than an aggregation returns,
+     * and series whose partials were found truncated before, are not split as their partials would not add up.
+     */
+    private boolean isSplitByDay(GroupRequest parameter, Interval window) {
+        return Strings.isNullOrEmpty(parameter.getUniqueCountOn())
+                && Strings.isNullOrEmpty(parameter.getAggregationField())
+                && estimatedCardinality <= getAggregationSize()
+                && Utils.isBucketCacheable(getBucketCache(), parameter.getFilters(), Utils.DAILY_PARTIAL_FIELD, window)
+                && !getBucketCache().isExcluded(getDailyPartialSeriesKey());
+    }
+
+    private ActionResponse executeByDay(GroupRequest parameter, Interval window) {
+        NavigableMap<Long, Map<String, Object>> partials = getBucketCache().fetch(getDailyPartialSeriesKey(),
+                Period.days, window, (from, to) -> {
+                    SearchRequest query = new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(),
+                            parameter, Utils.bucketRangeInterval(window, from, to), getIndexCatalog()))
+                            .indicesOptions(Utils.indicesOptions())
+                            .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                            .source(Utils.aggregationOnlySource()
+                                    .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
+                                    .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter,
+                                            Utils.bucketRangeFilters(Utils.DAILY_PARTIAL_FIELD, from, to),
+                                            getQueryNormalizationConfig()))
+                                    .aggregation(Utils.buildDailyPartialAggregation(buildAggregation(parameter))));
+                    try {
+                        SearchResponse response = getConnection().getClient()
+                                .search(query, RequestOptions.DEFAULT);
+                        return Utils.readDailyPartials(response.getAggregations(), day -> {
+                            if (isTruncated(parameter.getNesting(), day.getAggregations())) {
+                                throw new TruncatedPartialException();
+                            }
+                            return getMap(parameter.getNesting(), day.getAggregations());
+                        });
+                    } catch (IOException e) {
+                        throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
+                    }
+                });
+        Map<String, Object> counts = Maps.newHashMap();
+        partials.values()
+                .forEach(partial -> addCounts(counts, partial));
+        // Days can each fit in an aggregation while the window does not, the search over it would leave terms out
+        if (exceedsAggregationSize(counts)) {
+            throw new TruncatedPartialException();
+        }
+        return new GroupResponse(counts);
+    }
+
+    private int getAggregationSize() {
+        return 0 == elasticsearchTuningConfig.getAggregationSize()
+               ? ElasticsearchQueryUtils.QUERY_SIZE
+               : elasticsearchTuningConfig.getAggregationSize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean exceedsAggregationSize(Map<String, Object> counts) {
+        if (counts.size() > getAggregationSize()) {
+            return true;
+        }
+        for (Object value : counts.values()) {
+            if (value instanceof Map && exceedsAggregationSize((Map<String, Object>) value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Top terms of a day need not be top terms of the window, so partials are only usable when no level of the
+     * aggregation left out any term
+     */
+    private boolean isTruncated(List<String> fields, Aggregations aggregations) {
+        Terms terms = aggregations.get(Utils.sanitizeFieldForAggregation(fields.get(0)));
+        if (null == terms) {
+            return false;
+        }
+        if (terms.getSumOfOtherDocCounts() > 0) {
+            return true;
+        }
+        if (fields.size() > 1) {
+            List<String> remainingFields = fields.subList(1, fields.size());
+            for (Terms.Bucket bucket : terms.getBuckets()) {
+                if (isTruncated(remainingFields, bucket.getAggregations())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addCounts(Map<String, Object> counts, Map<String, Object> partial) {
+        partial.forEach((key, value) -> {
+            if (value instanceof Map) {
+                addCounts((Map<String, Object>) counts.computeIfAbsent(key, k -> Maps.newHashMap()),
+                        (Map<String, Object>) value);
+            } else {
+                counts.merge(key, value, (count, other) -> ((Number) count).longValue() + ((Number) other)
+                        .longValue());
+            }
+        });
+    }
+
+    private String getDailyPartialSeriesKey() {
+        GroupRequest query = getParameter();
+        return String.format("group-%s-%s-%d", query.getTable(), String.join(",", query.getNesting()),
+                Utils.nonTemporalFilterHash(query.getFilters()));
+    }
+
     @Override
     public SearchRequest getRequestBuilder(GroupRequest parameter, List<Filter> extraFilters) {
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
-                .source(new SearchSourceBuilder()
-                        .size(QUERY_SIZE)
+                .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                .source(Utils.aggregationOnlySource()
                         .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
-                        .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters))
+                        .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                getQueryNormalizationConfig()))
                         .aggregation(buildAggregation(parameter)));
     }
 
+    @Override
+    protected ActionResponse emptyResponse(GroupRequest parameter) {
+        return new GroupResponse(Collections.emptyMap());
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, GroupRequest parameter) {
         List<String> fields = parameter.getNesting();
@@ -310,6 +456,7 @@ public class GroupAction extends Action<GroupRequest> {
                 estimatedDocCountAfterFilters,
                 outputCardinality
         );
+        estimatedCardinality = outputCardinality;
         long maxCardinality = MAX_CARDINALITY;
         if (getQueryStore() instanceof ElasticsearchQueryStore &&
                 ((ElasticsearchQueryStore) getQueryStore()).getCardinalityConfig() != null &&
@@ -796,6 +943,12 @@ public class GroupAction extends Action<GroupRequest> {
 
     }
 
+    /**
+     * Raised while loading daily partials that do not add up to the result over the whole window
+     */
+    private static final class TruncatedPartialException extends RuntimeException {
+    }
+
     private void validateCardinality(GroupRequest parameter) {
         // Perform cardinality analysis and see how much this fucks up the cluster
         QueryStore queryStore = getQueryStore();
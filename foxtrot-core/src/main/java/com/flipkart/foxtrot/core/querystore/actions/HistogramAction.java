@@ -23,6 +23,7 @@ import com.flipkart.foxtrot.common.query.datetime.LastFilter;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
 import com.flipkart.foxtrot.common.visitor.CountPrecisionThresholdVisitorAdapter;
 import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.common.PeriodSelector;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
@@ -39,18 +40,18 @@ import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggre
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
 import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
-import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
-
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
  * Date: 29/03/14
@@ -121,28 +122,61 @@ public class HistogramAction extends Action<HistogramRequest> {
 
     @Override
     public ActionResponse execute(HistogramRequest parameter) {
-        SearchRequest query = getRequestBuilder(parameter, Collections.emptyList());
+        Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+        if (!Utils.isBucketCacheable(getBucketCache(), parameter.getFilters(), parameter.getField(), window)) {
+            return getResponse(search(parameter, Collections.emptyList(), null), parameter);
+        }
+        NavigableMap<Long, HistogramResponse.Count> counts = getBucketCache().fetch(getBucketSeriesKey(),
+                parameter.getPeriod(), window, (from, to) -> {
+                    HistogramResponse response = (HistogramResponse) getResponse(search(parameter,
+                            Utils.bucketRangeFilters(parameter.getField(), from, to),
+                            Utils.bucketRangeInterval(window, from, to)), parameter);
+                    NavigableMap<Long, HistogramResponse.Count> buckets = new TreeMap<>();
+                    response.getCounts()
+                            .forEach(count -> buckets.put(count.getPeriod()
+                                    .longValue(), count));
+                    return buckets;
+                });
+        return new HistogramResponse(new ArrayList<>(counts.values()));
+    }
+
+    private SearchResponse search(HistogramRequest parameter, List<Filter> extraFilters, Interval range) {
+        SearchRequest query = getRequestBuilder(parameter, extraFilters);
+        if (null != range) {
+            query.indices(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, range, getIndexCatalog()));
+        }
         try {
-            SearchResponse response = getConnection()
+            return getConnection()
                     .getClient()
                     .search(query);
-            return getResponse(response, parameter);
         } catch (IOException e) {
             throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
         }
     }
 
+    private String getBucketSeriesKey() {
+        HistogramRequest query = getParameter();
+        return String.format("histogram-%s-%s-%s-%s-%d", query.getTable(), query.getPeriod()
+                .name(), query.getField(), query.getUniqueCountOn(), Utils.nonTemporalFilterHash(query.getFilters()));
+    }
+
     @Override
     public SearchRequest getRequestBuilder(HistogramRequest parameter, List<Filter> extraFilters) {
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
-                .source(new SearchSourceBuilder()
-                        .size(QUERY_SIZE)
+                .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                .source(Utils.aggregationOnlySource()
                         .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
-                        .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters))
+                        .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                getQueryNormalizationConfig()))
                         .aggregation(buildAggregation(parameter)));
     }
 
+    @Override
+    protected ActionResponse emptyResponse(HistogramRequest parameter) {
+        return new HistogramResponse(Collections.emptyList());
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, HistogramRequest parameter) {
         Aggregations aggregations = ((SearchResponse) response).getAggregations();
@@ -17,6 +17,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -27,6 +28,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /***
@@ -94,6 +96,40 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
 
     @Override
     public ActionResponse execute(MultiQueryRequest parameter) {
+        validateTemporalFilters(parameter);
+        MultiSearchRequest multiSearchRequestBuilder = getRequestBuilder(parameter, Collections.emptyList());
+        try {
+            log.info("Search: {}", multiSearchRequestBuilder);
+            MultiSearchResponse multiSearchResponse = getConnection()
+                    .getClient()
+                    .multiSearch(multiSearchRequestBuilder, RequestOptions.DEFAULT);
+            return getResponse(multiSearchResponse, parameter);
+        } catch (IOException e) {
+            throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ActionResponse> executeAsync(MultiQueryRequest parameter) {
+        validateTemporalFilters(parameter);
+        MultiSearchRequest multiSearchRequest = getRequestBuilder(parameter, Collections.emptyList());
+        CompletableFuture<MultiSearchResponse> future = new CompletableFuture<>();
+        getConnection().getClient()
+                .msearchAsync(multiSearchRequest, RequestOptions.DEFAULT, new ActionListener<MultiSearchResponse>() {
+                    @Override
+                    public void onResponse(MultiSearchResponse response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        future.completeExceptionally(FoxtrotExceptions.createQueryExecutionException(parameter, e));
+                    }
+                });
+        return future.thenApplyAsync(response -> getResponse(response, parameter), getCompletionExecutor());
+    }
+
+    private void validateTemporalFilters(MultiQueryRequest parameter) {
         if (Utils.hasTemporalFilters(parameter.getFilters())) {
             val offendingRequests = parameter.getRequests().entrySet().stream()
                     .filter(entry -> Utils.hasTemporalFilters(entry.getValue().getFilters()))
@@ -106,16 +142,6 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
                                 "Temporal filters passed in multi query as well as children: " + offendingRequests));
             }
         }
-        MultiSearchRequest multiSearchRequestBuilder = getRequestBuilder(parameter, Collections.emptyList());
-        try {
-            log.info("Search: {}", multiSearchRequestBuilder);
-            MultiSearchResponse multiSearchResponse = getConnection()
-                    .getClient()
-                    .multiSearch(multiSearchRequestBuilder, RequestOptions.DEFAULT);
-            return getResponse(multiSearchResponse, parameter);
-        } catch (IOException e) {
-            throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
-        }
     }
 
     @Override
@@ -134,7 +160,7 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
         for (Map.Entry<String, ActionRequest> entry : parameter.getRequests()
                 .entrySet()) {
             ActionRequest request = entry.getValue();
-            Action<ActionRequest> action = analyticsLoader.getAction(request);
+            Action action = resolveAction(request);
             if (null == action) {
                 throw FoxtrotExceptions.queryCreationException(request, null);
             }
@@ -162,7 +188,7 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
             Action action = null;
             ActionRequest request = requests.get(queryCounter);
             try {
-                action = analyticsLoader.getAction(request);
+                action = resolveAction(request);
             } catch (Exception e) {
                 log.error("Error occurred while executing multiQuery request : {}", e);
             }
@@ -192,13 +218,7 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
 
         for (Map.Entry<String, ActionRequest> entry : multiQueryRequest.getRequests().entrySet()) {
             ActionRequest request = entry.getValue();
-            Action action;
-            if (requestActionMap.get(request) != null) {
-                action = requestActionMap.get(request);
-            } else {
-                action = analyticsLoader.getAction(request);
-                requestActionMap.put(request, action);
-            }
+            Action action = resolveAction(request);
             if (null == action) {
                 throw FoxtrotExceptions.createMalformedQueryException(multiQueryRequest, Collections.singletonList(
                         "No action found for the sub request : " + request.toString()));
@@ -207,6 +227,17 @@ public class MultiQueryAction extends Action<MultiQueryRequest> {
         }
     }
 
+    private Action resolveAction(ActionRequest request) {
+        Action action = requestActionMap.get(request);
+        if (null == action) {
+            action = analyticsLoader.getAction(request);
+            if (null != action) {
+                requestActionMap.put(request, action);
+            }
+        }
+        return action;
+    }
+
     private String processForSubQueries(MultiQueryRequest multiQueryRequest, ActionInterface actionInterface) {
         List<String> results = Lists.newArrayList();
         for (Map.Entry<String, ActionRequest> entry : multiQueryRequest.getRequests().entrySet()) {
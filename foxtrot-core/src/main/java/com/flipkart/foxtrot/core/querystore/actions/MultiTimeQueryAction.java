@@ -12,6 +12,7 @@ import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsProvider;
 import com.google.common.collect.Lists;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /***
@@ -114,6 +115,16 @@ public class MultiTimeQueryAction extends Action<MultiTimeQueryRequest> {
         return multiTimeQueryResponse;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<ActionResponse> executeAsync(MultiTimeQueryRequest parameter) {
+        return ((CompletableFuture<ActionResponse>) action.executeAsync(multiQueryRequest)).thenApply(response -> {
+            MultiTimeQueryResponse multiTimeQueryResponse = new MultiTimeQueryResponse();
+            multiTimeQueryResponse.setResponses(((MultiQueryResponse) response).getResponses());
+            return multiTimeQueryResponse;
+        });
+    }
+
     @Override
     public org.elasticsearch.action.ActionRequest getRequestBuilder(MultiTimeQueryRequest parameter, List<Filter> extraFilters) {
         return action.getRequestBuilder(multiQueryRequest, extraFilters);
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -105,6 +106,11 @@ public class StatsAction extends Action<StatsRequest> {
         }
     }
 
+    @Override
+    public CompletableFuture<ActionResponse> executeAsync(StatsRequest parameter) {
+        return searchAsync(getRequestBuilder(parameter, Collections.emptyList()), parameter);
+    }
+
     @Override
     public ActionResponse execute(StatsRequest parameter) {
         SearchRequest query = getRequestBuilder(parameter, Collections.emptyList());
@@ -120,10 +126,10 @@ public class StatsAction extends Action<StatsRequest> {
 
     @Override
     public SearchRequest getRequestBuilder(StatsRequest parameter, List<Filter> extraFilters) {
-        final SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
-                .size(0)
+        final SearchSourceBuilder sourceBuilder = Utils.aggregationOnlySource()
                 .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
-                .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters));
+                .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                        getQueryNormalizationConfig()));
 
         AbstractAggregationBuilder percentiles = null;
         final String field = getParameter().getField();
@@ -154,8 +160,9 @@ public class StatsAction extends Action<StatsRequest> {
                             subAggregations,
                             elasticsearchTuningConfig.getAggregationSize()));
         }
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
+                .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
                 .source(sourceBuilder);
     }
 
@@ -8,6 +8,7 @@ import com.flipkart.foxtrot.common.query.datetime.LastFilter;
 import com.flipkart.foxtrot.common.stats.*;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
 import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.common.PeriodSelector;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
@@ -29,14 +30,17 @@ import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInter
 import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.percentiles.Percentiles;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -119,25 +123,59 @@ public class StatsTrendAction extends Action<StatsTrendRequest> {
 
     @Override
     public ActionResponse execute(StatsTrendRequest parameter) {
-        SearchRequest query = getRequestBuilder(parameter, Collections.emptyList());
+        Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+        if (!CollectionUtils.isNullOrEmpty(parameter.getNesting()) || !Utils.isBucketCacheable(getBucketCache(),
+                parameter.getFilters(), parameter.getTimestamp(), window)) {
+            return getResponse(search(parameter, Collections.emptyList(), null), parameter);
+        }
+        NavigableMap<Long, StatsTrendValue> buckets = getBucketCache().fetch(getBucketSeriesKey(),
+                parameter.getPeriod(), window, (from, to) -> {
+                    StatsTrendResponse response = (StatsTrendResponse) getResponse(search(parameter,
+                            Utils.bucketRangeFilters(parameter.getTimestamp(), from, to),
+                            Utils.bucketRangeInterval(window, from, to)), parameter);
+                    NavigableMap<Long, StatsTrendValue> loaded = new TreeMap<>();
+                    if (null != response && null != response.getResult()) {
+                        response.getResult()
+                                .forEach(value -> loaded.put(value.getPeriod()
+                                        .longValue(), value));
+                    }
+                    return loaded;
+                });
+        StatsTrendResponse response = new StatsTrendResponse();
+        response.setResult(new ArrayList<>(buckets.values()));
+        return response;
+    }
+
+    private SearchResponse search(StatsTrendRequest parameter, List<Filter> extraFilters, Interval range) {
+        SearchRequest query = getRequestBuilder(parameter, extraFilters);
+        if (null != range) {
+            query.indices(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, range, getIndexCatalog()));
+        }
         try {
-            SearchResponse response = getConnection()
+            return getConnection()
                     .getClient()
                     .search(query);
-            return getResponse(response, parameter);
         } catch (IOException e) {
             throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
         }
     }
 
+    private String getBucketSeriesKey() {
+        StatsTrendRequest query = getParameter();
+        return String.format("stats-trend-%s-%s-%s-%s-%d-%d", query.getTable(), query.getField(), query.getPeriod(),
+                query.getTimestamp(), Objects.hash(query.getStats(), query.getPercentiles(), query.getCompression(),
+                        query.getFlags()), Utils.nonTemporalFilterHash(query.getFilters()));
+    }
+
     @Override
     public SearchRequest getRequestBuilder(StatsTrendRequest parameter, List<Filter> extraFilters) {
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
-                .source(new SearchSourceBuilder()
-                        .size(0)
+                .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                .source(Utils.aggregationOnlySource()
                         .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
-                        .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters))
+                        .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                getQueryNormalizationConfig()))
                         .aggregation(buildAggregation(parameter, parameter.getTable())));
 
     }
@@ -26,6 +26,7 @@ import com.flipkart.foxtrot.common.trend.TrendResponse;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
 import com.flipkart.foxtrot.common.visitor.CountPrecisionThresholdVisitorAdapter;
 import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.common.PeriodSelector;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
@@ -46,18 +47,17 @@ import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInter
 import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
-import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
-
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
  * Date: 30/03/14
@@ -150,29 +150,82 @@ public class TrendAction extends Action<TrendRequest> {
 
     @Override
     public ActionResponse execute(TrendRequest parameter) {
-        SearchRequest query = getRequestBuilder(parameter, Collections.emptyList());
+        Interval window = new PeriodSelector(parameter.getFilters()).analyze();
+        if (!isBucketCacheable(parameter, window)) {
+            return getResponse(search(parameter, Collections.emptyList(), null), parameter);
+        }
+        NavigableMap<Long, Map<String, TrendResponse.Count>> buckets = getBucketCache().fetch(getBucketSeriesKey(),
+                parameter.getPeriod(), window, (from, to) -> {
+                    TrendResponse response = (TrendResponse) getResponse(search(parameter,
+                            Utils.bucketRangeFilters(parameter.getTimestamp(), from, to),
+                            Utils.bucketRangeInterval(window, from, to)), parameter);
+                    NavigableMap<Long, Map<String, TrendResponse.Count>> loaded = new TreeMap<>();
+                    response.getTrends()
+                            .forEach((value, counts) -> counts.forEach(count -> loaded.computeIfAbsent(count.getPeriod()
+                                    .longValue(), period -> new TreeMap<>())
+                                    .put(value, count)));
+                    return loaded;
+                });
+        Map<String, List<TrendResponse.Count>> trendCounts = new TreeMap<>();
+        buckets.values()
+                .forEach(bucket -> bucket.forEach((value, count) -> trendCounts.computeIfAbsent(value,
+                        key -> Lists.newArrayList())
+                        .add(count)));
+        return new TrendResponse(trendCounts);
+    }
+
+    /**
+     * Top values of the field can differ between parts of the window, so only trends over an explicit list of values
+     * that all fit in one aggregation are split into buckets
+     */
+    private boolean isBucketCacheable(TrendRequest parameter, Interval window) {
+        if (CollectionUtils.isNullOrEmpty(parameter.getValues())) {
+            return false;
+        }
+        int aggregationSize = elasticsearchTuningConfig.getAggregationSize();
+        return (0 == aggregationSize || parameter.getValues()
+                .size() <= aggregationSize) && Utils.isBucketCacheable(getBucketCache(), parameter.getFilters(),
+                parameter.getTimestamp(), window);
+    }
+
+    private SearchResponse search(TrendRequest parameter, List<Filter> extraFilters, Interval range) {
+        SearchRequest query = getRequestBuilder(parameter, extraFilters);
+        if (null != range) {
+            query.indices(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, range, getIndexCatalog()));
+        }
         try {
-            SearchResponse response = getConnection()
+            return getConnection()
                     .getClient()
                     .search(query);
-            return getResponse(response, parameter);
         } catch (IOException e) {
             throw FoxtrotExceptions.createQueryExecutionException(parameter, e);
         }
     }
 
+    private String getBucketSeriesKey() {
+        TrendRequest query = getParameter();
+        return String.format("trend-%s-%s-%s-%s-%s-%d", query.getTable(), query.getField(), query.getPeriod(),
+                query.getTimestamp(), query.getUniqueCountOn(), Utils.nonTemporalFilterHash(query.getFilters()));
+    }
+
     @Override
     public SearchRequest getRequestBuilder(TrendRequest parameter, List<Filter> extraFilters) {
-        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter))
+        return new SearchRequest(ElasticsearchUtils.getIndices(parameter.getTable(), parameter, getIndexCatalog()))
                 .indicesOptions(Utils.indicesOptions())
-                .source(new SearchSourceBuilder()
-                        .size(QUERY_SIZE)
+                .requestCache(ElasticsearchQueryUtils.requestCache(getQueryNormalizationConfig()))
+                .source(Utils.aggregationOnlySource()
                         .timeout(new TimeValue(getGetQueryTimeout(), TimeUnit.MILLISECONDS))
-                        .query(ElasticsearchQueryUtils.translateFilter(parameter, extraFilters))
+                        .query(ElasticsearchQueryUtils.translateAggregationFilter(parameter, extraFilters,
+                                getQueryNormalizationConfig()))
                         .aggregation(buildAggregation(parameter)));
 
     }
 
+    @Override
+    protected ActionResponse emptyResponse(TrendRequest parameter) {
+        return new TrendResponse(Collections.emptyMap());
+    }
+
     @Override
     public ActionResponse getResponse(org.elasticsearch.action.ActionResponse response, TrendRequest parameter) {
         Aggregations aggregations = ((SearchResponse) response).getAggregations();
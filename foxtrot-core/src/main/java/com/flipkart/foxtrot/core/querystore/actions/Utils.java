@@ -7,9 +7,12 @@ import com.flipkart.foxtrot.common.Period;
 import com.flipkart.foxtrot.common.TableFieldMapping;
 import com.flipkart.foxtrot.common.query.Filter;
 import com.flipkart.foxtrot.common.query.ResultSort;
+import com.flipkart.foxtrot.common.query.numeric.GreaterEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
 import com.flipkart.foxtrot.common.stats.Stat;
 import com.flipkart.foxtrot.common.stats.Stat.StatVisitor;
 import com.flipkart.foxtrot.common.util.CollectionUtils;
+import com.flipkart.foxtrot.core.cache.BucketCache;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchUtils;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
@@ -20,6 +23,7 @@ import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.search.aggregations.*;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.avg.ParsedAvg;
 import org.elasticsearch.search.aggregations.metrics.cardinality.CardinalityAggregationBuilder;
@@ -31,9 +35,13 @@ import org.elasticsearch.search.aggregations.metrics.stats.ParsedStats;
 import org.elasticsearch.search.aggregations.metrics.stats.extended.ParsedExtendedStats;
 import org.elasticsearch.search.aggregations.metrics.sum.ParsedSum;
 import org.elasticsearch.search.aggregations.metrics.valuecount.ParsedValueCount;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.Interval;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils.QUERY_SIZE;
 
@@ -50,6 +58,10 @@ public class Utils {
     public static final String SUM_OF_SQUARES = "sum_of_squares";
     public static final String VARIANCE = "variance";
     public static final String STD_DEVIATION = "std_deviation";
+    /***
+     Field on which group and count results are split into cached daily partials
+     ***/
+    public static final String DAILY_PARTIAL_FIELD = "_timestamp";
     private static final double[] DEFAULT_PERCENTILES = {1d, 5d, 25, 50d, 75d, 95d, 99d};
     private static final double DEFAULT_COMPRESSION = 100.0;
     private static final int PRECISION_THRESHOLD = 500;
@@ -246,6 +258,84 @@ public class Utils {
         return sanitizeFieldForAggregation(field) + "_percentile";
     }
 
+    /**
+     * Buckets on a field can be cached when the time window of the request is a single bounded temporal filter on the
+     * same field, so that every bucket inside the window is computed over all of its documents
+     */
+    public static boolean isBucketCacheable(BucketCache bucketCache, List<Filter> filters, String bucketField,
+                                            Interval window) {
+        if (null == bucketCache || !bucketCache.isEnabled() || window.getStart()
+                .getYear() <= 1970) {
+            return false;
+        }
+        int temporalFilters = 0;
+        for (Filter filter : filters) {
+            if (filter.isFilterTemporal() || ElasticsearchUtils.TIME_FIELD.equals(filter.getField())) {
+                if (!storedFieldName(filter.getField()).equals(storedFieldName(bucketField))) {
+                    return false;
+                }
+                temporalFilters++;
+            }
+        }
+        return temporalFilters == 1;
+    }
+
+    public static long nonTemporalFilterHash(List<Filter> filters) {
+        long filterHashKey = 0L;
+        for (Filter filter : filters) {
+            if (!filter.isFilterTemporal() && !ElasticsearchUtils.TIME_FIELD.equals(filter.getField())) {
+                filterHashKey += 31 * filter.hashCode();
+            }
+        }
+        return filterHashKey;
+    }
+
+    /**
+     * Restricts a bucket query to [from, to), null bounds are left to the filters of the request
+     */
+    public static List<Filter> bucketRangeFilters(String field, Long from, Long to) {
+        List<Filter> filters = new ArrayList<>(2);
+        if (null != from) {
+            filters.add(new GreaterEqualFilter(field, from, true));
+        }
+        if (null != to) {
+            filters.add(new LessThanFilter(field, to, true));
+        }
+        return filters;
+    }
+
+    public static Interval bucketRangeInterval(Interval window, Long from, Long to) {
+        return new Interval(null == from ? window.getStartMillis() : from, null == to ? window.getEndMillis() : to);
+    }
+
+    /***
+     Day histogram on the daily partial field, the sub aggregations of each bucket make up the partial of that day
+     ***/
+    public static DateHistogramAggregationBuilder buildDailyPartialAggregation(AggregationBuilder partial) {
+        DateHistogramAggregationBuilder days = buildDateHistogramAggregation(DAILY_PARTIAL_FIELD,
+                DateHistogramInterval.DAY);
+        if (null != partial) {
+            days.subAggregation(partial);
+        }
+        return days;
+    }
+
+    public static <V> NavigableMap<Long, V> readDailyPartials(Aggregations aggregations,
+                                                              Function<Histogram.Bucket, V> reader) {
+        NavigableMap<Long, V> partials = new TreeMap<>();
+        if (null == aggregations) {
+            return partials;
+        }
+        Histogram days = aggregations.get(getDateHistogramKey(DAILY_PARTIAL_FIELD));
+        if (null == days) {
+            return partials;
+        }
+        for (Histogram.Bucket day : days.getBuckets()) {
+            partials.put(((DateTime) day.getKey()).getMillis(), reader.apply(day));
+        }
+        return partials;
+    }
+
     public static String getDateHistogramKey(String field) {
         return sanitizeFieldForAggregation(field) + "_date_histogram";
     }
@@ -254,6 +344,24 @@ public class Utils {
         return IndicesOptions.lenientExpandOpen();
     }
 
+    /***
+     Source for searches whose response is read only from aggregations. No hits are fetched and total hits are not
+     counted, so shards skip collecting and shipping top documents.
+     ***/
+    public static SearchSourceBuilder aggregationOnlySource() {
+        return new SearchSourceBuilder()
+                .size(0)
+                .trackTotalHits(false);
+    }
+
+    /***
+     Source for searches that only need the total hit count
+     ***/
+    public static SearchSourceBuilder hitCountOnlySource() {
+        return new SearchSourceBuilder()
+                .size(0);
+    }
+
     public static Map<String, Number> createStatsResponse(ParsedExtendedStats extendedStats) {
         Map<String, Number> stats = Maps.newHashMap();
         stats.put(AVG, extendedStats.getAvg());
@@ -17,8 +17,15 @@ package com.flipkart.foxtrot.core.querystore.actions.spi;
 
 import com.flipkart.foxtrot.common.ActionRequest;
 import com.flipkart.foxtrot.core.common.Action;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -26,9 +33,52 @@ import lombok.Data;
  * Time: 1:37 AM
  */
 @Data
-@AllArgsConstructor
+@EqualsAndHashCode(exclude = {"factory", "factoryError"})
+@ToString(exclude = {"factory", "factoryError"})
 public class ActionMetadata {
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Action.class, ActionRequest.class,
+            AnalyticsLoader.class);
+
     private final Class<? extends ActionRequest> request;
     private final Class<? extends Action> action;
     private final boolean cacheable;
+
+    @Getter(AccessLevel.NONE)
+    private final MethodHandle factory;
+    @Getter(AccessLevel.NONE)
+    private final Exception factoryError;
+
+    public ActionMetadata(Class<? extends ActionRequest> request, Class<? extends Action> action, boolean cacheable) {
+        this.request = request;
+        this.action = action;
+        this.cacheable = cacheable;
+        MethodHandle handle = null;
+        Exception error = null;
+        try {
+            handle = MethodHandles.publicLookup()
+                    .findConstructor(action, MethodType.methodType(void.class, request, AnalyticsLoader.class))
+                    .asType(FACTORY_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            error = e;
+        }
+        this.factory = handle;
+        this.factoryError = error;
+    }
+
+    /**
+     * Creates the action for a request through the constructor handle resolved at registration,
+     * so no reflective lookup happens per query.
+     */
+    public Action newAction(ActionRequest actionRequest, AnalyticsLoader analyticsLoader) throws Exception {
+        if (null == factory) {
+            throw factoryError;
+        }
+        try {
+            return (Action) factory.invokeExact(actionRequest, analyticsLoader);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
 }
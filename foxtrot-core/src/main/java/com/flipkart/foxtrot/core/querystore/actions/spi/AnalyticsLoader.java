@@ -18,17 +18,24 @@ package com.flipkart.foxtrot.core.querystore.actions.spi;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.flipkart.foxtrot.common.ActionRequest;
+import com.flipkart.foxtrot.core.cache.BucketCache;
 import com.flipkart.foxtrot.core.cache.CacheManager;
 import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
 import com.flipkart.foxtrot.core.datastore.DataStore;
 import com.flipkart.foxtrot.core.exception.AnalyticsActionLoaderException;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.querystore.QueryScheduler;
 import com.flipkart.foxtrot.core.querystore.QueryStore;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchConnection;
+import com.flipkart.foxtrot.core.querystore.impl.IndexCatalog;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
 import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.dropwizard.lifecycle.Managed;
 import lombok.Getter;
 import org.reflections.Reflections;
@@ -39,11 +46,11 @@ import ru.vyarus.dropwizard.guice.module.installer.order.Order;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -58,7 +65,7 @@ public class AnalyticsLoader implements Managed {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsLoader.class);
 
-    private final Map<String, ActionMetadata> actions = Maps.newHashMap();
+    private final Map<Class<? extends ActionRequest>, ActionMetadata> actions = Maps.newHashMap();
     private final TableMetadataManager tableMetadataManager;
     private final DataStore dataStore;
     private final QueryStore queryStore;
@@ -66,12 +73,72 @@ public class AnalyticsLoader implements Managed {
     private final ElasticsearchTuningConfig elasticsearchTuningConfig;
     private final CacheManager cacheManager;
     private final ObjectMapper objectMapper;
+    private final BucketCache bucketCache;
+    private final QueryScheduler queryScheduler;
+    private final ExecutorService executorService;
+    private final QueryNormalizationConfig queryNormalizationConfig;
+    private final IndexCatalog indexCatalog;
 
-    @Inject
     public AnalyticsLoader(
             TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
             ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
             ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig) {
+        this(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager, objectMapper,
+                elasticsearchTuningConfig, new BucketCache(new BucketCacheConfig()));
+    }
+
+    public AnalyticsLoader(
+            TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
+            ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
+            ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig,
+            BucketCache bucketCache) {
+        this(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager, objectMapper,
+                elasticsearchTuningConfig, bucketCache, new QueryScheduler(new QuerySchedulerConfig()));
+    }
+
+    public AnalyticsLoader(
+            TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
+            ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
+            ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig,
+            BucketCache bucketCache, QueryScheduler queryScheduler) {
+        this(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager, objectMapper,
+                elasticsearchTuningConfig, bucketCache, queryScheduler, MoreExecutors.newDirectExecutorService());
+    }
+
+    /**
+     * @param executorService executor that non blocking queries complete on, off the elasticsearch client threads
+     */
+    public AnalyticsLoader(
+            TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
+            ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
+            ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig,
+            BucketCache bucketCache, QueryScheduler queryScheduler, ExecutorService executorService) {
+        this(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager, objectMapper,
+                elasticsearchTuningConfig, bucketCache, queryScheduler, executorService,
+                new QueryNormalizationConfig());
+    }
+
+    public AnalyticsLoader(
+            TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
+            ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
+            ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig,
+            BucketCache bucketCache, QueryScheduler queryScheduler, ExecutorService executorService,
+            QueryNormalizationConfig queryNormalizationConfig) {
+        this(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager, objectMapper,
+                elasticsearchTuningConfig, bucketCache, queryScheduler, executorService, queryNormalizationConfig,
+                null);
+    }
+
+    /**
+     * @param indexCatalog catalog queries skip indices known to be missing with, null to query every daily index
+     */
+    @Inject
+    public AnalyticsLoader(
+            TableMetadataManager tableMetadataManager, DataStore dataStore, QueryStore queryStore,
+            ElasticsearchConnection elasticsearchConnection, CacheManager cacheManager,
+            ObjectMapper objectMapper, ElasticsearchTuningConfig elasticsearchTuningConfig,
+            BucketCache bucketCache, QueryScheduler queryScheduler, ExecutorService executorService,
+            QueryNormalizationConfig queryNormalizationConfig, IndexCatalog indexCatalog) {
         this.tableMetadataManager = tableMetadataManager;
         this.dataStore = dataStore;
         this.queryStore = queryStore;
@@ -79,32 +146,28 @@ public class AnalyticsLoader implements Managed {
         this.cacheManager = cacheManager;
         this.objectMapper = objectMapper;
         this.elasticsearchTuningConfig = elasticsearchTuningConfig;
+        this.bucketCache = bucketCache;
+        this.queryScheduler = queryScheduler;
+        this.executorService = executorService;
+        this.queryNormalizationConfig = queryNormalizationConfig;
+        this.indexCatalog = indexCatalog;
     }
 
     @SuppressWarnings("unchecked")
     public <R extends ActionRequest> Action<R> getAction(R request) {
-        final String className = request.getClass()
-                .getCanonicalName();
-        if (actions.containsKey(className)) {
-            ActionMetadata metadata = actions.get(className);
-            if (metadata.getRequest()
-                    .isInstance(request)) {
-                R r = (R) metadata.getRequest()
-                        .cast(request);
-                try {
-                    Constructor<? extends Action> constructor = metadata.getAction()
-                            .getConstructor(metadata.getRequest(), AnalyticsLoader.class);
-                    return constructor.newInstance(r, this);
-                } catch (Exception e) {
-                    throw FoxtrotExceptions.createActionResolutionException(request, e);
-                }
-            }
+        final ActionMetadata metadata = actions.get(request.getClass());
+        if (null == metadata) {
+            return null;
+        }
+        try {
+            return metadata.newAction(request, this);
+        } catch (Exception e) {
+            throw FoxtrotExceptions.createActionResolutionException(request, e);
         }
-        return null;
     }
 
     public void register(ActionMetadata actionMetadata, String opcode) {
-        actions.put(actionMetadata.getRequest().getCanonicalName(), actionMetadata);
+        actions.put(actionMetadata.getRequest(), actionMetadata);
         if (actionMetadata.isCacheable()) {
             registerCache(opcode);
         }
@@ -18,14 +18,15 @@ public class ResponseCacheUpdater implements ActionExecutionObserver {
 
     @Override
     public void postExecution(ActionEvaluationResponse response) {
-        if (null == response || null == response.getResponse() || null == response.getExecutedAction()) {
+        if (null == response || null == response.getResponse() || null == response.getExecutedAction()
+                || null == response.getCacheKey() || response.isCached()) {
             return;
         }
         final Cache cache = cacheManager.getCacheFor(response.getRequest().getOpcode());
         if (null == cache || response.getRequest().isBypassCache()) {
             return;
         }
-        final String cacheKey = response.getExecutedAction().cacheKey();
-        cache.put(cacheKey, response.getResponse());
+        // Use the key the response was looked up with, recomputing it could land in the next time bucket
+        cache.putIfAbsent(response.getCacheKey(), response.getResponse());
     }
 }
@@ -2,6 +2,9 @@ package com.flipkart.foxtrot.core.querystore.impl;
 
 import lombok.Data;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /***
  Created by nitish.goyal on 20/09/18
  ***/
@@ -12,5 +15,29 @@ public class CacheConfig {
     private int timeToLiveSeconds;
     private int size;
 
+    // Responses kept on heap by each node in front of the distributed map, 0 disables the local tier
+    private int localCacheSize;
+    private int localCacheTimeToLiveSeconds;
+
+    // Overrides for the cache of a single opcode, settings left unset fall back to the ones above
+    private Map<String, OpcodeCacheConfig> opcodes = new HashMap<>();
+
+    public CacheConfig forOpcode(String opcode) {
+        OpcodeCacheConfig override = null == opcodes ? null : opcodes.get(opcode);
+        if (null == override) {
+            return this;
+        }
+        CacheConfig merged = new CacheConfig();
+        merged.setMaxIdleSeconds(valueOrDefault(override.getMaxIdleSeconds(), maxIdleSeconds));
+        merged.setTimeToLiveSeconds(valueOrDefault(override.getTimeToLiveSeconds(), timeToLiveSeconds));
+        merged.setSize(valueOrDefault(override.getSize(), size));
+        merged.setLocalCacheSize(valueOrDefault(override.getLocalCacheSize(), localCacheSize));
+        merged.setLocalCacheTimeToLiveSeconds(
+                valueOrDefault(override.getLocalCacheTimeToLiveSeconds(), localCacheTimeToLiveSeconds));
+        return merged;
+    }
 
+    private static int valueOrDefault(Integer value, int defaultValue) {
+        return null == value ? defaultValue : value;
+    }
 }
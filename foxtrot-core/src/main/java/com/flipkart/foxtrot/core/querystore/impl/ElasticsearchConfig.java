@@ -45,6 +45,9 @@ public class ElasticsearchConfig {
     @NotNull
     @Builder.Default
     private ConnectionType connectionType = ConnectionType.HTTP;
+    // Rest client connection pool, 0 keeps the client defaults. Should cover the threads issuing queries.
+    private int maxConnectionsTotal;
+    private int maxConnectionsPerRoute;
 
     public ConnectionType getConnectionType() {
         return connectionType;
@@ -86,6 +89,22 @@ public class ElasticsearchConfig {
         this.port = port;
     }
 
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
     public long getGetQueryTimeout() {
         return getQueryTimeout > 0 ? getQueryTimeout : DEFAULT_TIMEOUT;
     }
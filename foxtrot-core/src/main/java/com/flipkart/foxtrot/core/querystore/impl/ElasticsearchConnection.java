@@ -63,7 +63,16 @@ public class ElasticsearchConnection implements Managed {
                     return new HttpHost(host, port, scheme);
                 })
                 .toArray(HttpHost[]::new);
-        client = new RestHighLevelClient(RestClient.builder(hosts));
+        client = new RestHighLevelClient(RestClient.builder(hosts)
+                .setHttpClientConfigCallback(httpClientBuilder -> {
+                    if (config.getMaxConnectionsTotal() > 0) {
+                        httpClientBuilder.setMaxConnTotal(config.getMaxConnectionsTotal());
+                    }
+                    if (config.getMaxConnectionsPerRoute() > 0) {
+                        httpClientBuilder.setMaxConnPerRoute(config.getMaxConnectionsPerRoute());
+                    }
+                    return httpClientBuilder;
+                }));
         logger.info("Started ElasticSearch Client");
     }
 
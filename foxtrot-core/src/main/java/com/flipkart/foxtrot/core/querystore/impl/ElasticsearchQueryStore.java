@@ -16,27 +16,35 @@ import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.common.Table;
 import com.flipkart.foxtrot.common.TableFieldMapping;
 import com.flipkart.foxtrot.core.cardinality.CardinalityConfig;
+import com.flipkart.foxtrot.core.config.IngestionBufferConfig;
 import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
+import com.flipkart.foxtrot.core.datastore.SavedDocument;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.querystore.IngestionAckPolicy;
 import com.flipkart.foxtrot.core.querystore.QueryStore;
+import com.flipkart.foxtrot.core.querystore.actions.Utils;
+import com.flipkart.foxtrot.core.querystore.ingestion.IngestionBuffer;
+import com.flipkart.foxtrot.core.querystore.ingestion.PendingDocument;
 import com.flipkart.foxtrot.core.querystore.mutator.IndexerEventMutator;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
-import com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils;
 import com.flipkart.foxtrot.core.util.MetricUtil;
+import com.foxtrot.flipkart.translator.utils.Constants;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.dropwizard.lifecycle.Managed;
 import lombok.Data;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
@@ -51,18 +59,24 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.client.indices.GetIndexResponse;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.vyarus.dropwizard.guice.module.installer.order.Order;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -74,7 +88,8 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
  */
 @Data
 @Singleton
-public class ElasticsearchQueryStore implements QueryStore {
+@Order(18)
+public class ElasticsearchQueryStore implements QueryStore, Managed {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchQueryStore.class.getSimpleName());
     private static final String TABLE_META = "tableMeta";
     private static final String DATA_STORE = "dataStore";
@@ -87,20 +102,71 @@ public class ElasticsearchQueryStore implements QueryStore {
     private final List<IndexerEventMutator> mutators;
     private final ObjectMapper mapper;
     private final CardinalityConfig cardinalityConfig;
+    private final IngestionBufferConfig ingestionBufferConfig;
+    private final IngestionBuffer ingestionBuffer;
+    private final IndexSourceWriter indexSourceWriter;
+    private final IndexCatalog indexCatalog;
 
-    @Inject
     public ElasticsearchQueryStore(TableMetadataManager tableMetadataManager,
                                    ElasticsearchConnection connection,
                                    DataStore dataStore,
                                    List<IndexerEventMutator> mutators,
                                    ObjectMapper mapper,
                                    CardinalityConfig cardinalityConfig) {
+        this(tableMetadataManager, connection, dataStore, mutators, mapper, cardinalityConfig, new IngestionBufferConfig());
+    }
+
+    public ElasticsearchQueryStore(TableMetadataManager tableMetadataManager,
+                                   ElasticsearchConnection connection,
+                                   DataStore dataStore,
+                                   List<IndexerEventMutator> mutators,
+                                   ObjectMapper mapper,
+                                   CardinalityConfig cardinalityConfig,
+                                   IngestionBufferConfig ingestionBufferConfig) {
+        this(tableMetadataManager, connection, dataStore, mutators, mapper, cardinalityConfig, ingestionBufferConfig,
+                null);
+    }
+
+    /**
+     * @param indexCatalog catalog told about the indices written to, null if there is none
+     */
+    @Inject
+    public ElasticsearchQueryStore(TableMetadataManager tableMetadataManager,
+                                   ElasticsearchConnection connection,
+                                   DataStore dataStore,
+                                   List<IndexerEventMutator> mutators,
+                                   ObjectMapper mapper,
+                                   CardinalityConfig cardinalityConfig,
+                                   IngestionBufferConfig ingestionBufferConfig,
+                                   IndexCatalog indexCatalog) {
         this.connection = connection;
         this.dataStore = dataStore;
         this.tableMetadataManager = tableMetadataManager;
         this.mutators = mutators;
         this.mapper = mapper;
         this.cardinalityConfig = cardinalityConfig;
+        this.indexSourceWriter = new IndexSourceWriter(mapper, mutators);
+        this.ingestionBufferConfig = ingestionBufferConfig;
+        this.indexCatalog = indexCatalog;
+        this.ingestionBuffer = ingestionBufferConfig.isEnabled()
+                               ? new IngestionBuffer(ingestionBufferConfig, this::saveBatch)
+                               : null;
+    }
+
+    @Override
+    public void start() throws Exception {
+        // Nothing to start, the ingestion buffer is ready once constructed
+    }
+
+    /**
+     * Writes out the documents still waiting in the ingestion buffer before the stores are shut down
+     */
+    @Override
+    public void stop() throws Exception {
+        if (ingestionBuffer != null) {
+            ingestionBuffer.close();
+            logger.info("Ingestion buffer closed");
+        }
     }
 
     @Override
@@ -124,6 +190,10 @@ public class ElasticsearchQueryStore implements QueryStore {
                     .getMillis() < 0) {
                 return;
             }
+            if (ingestionBuffer != null) {
+                saveBuffered(table, document);
+                return;
+            }
             action = TABLE_META;
             stopwatch.reset()
                     .start();
@@ -136,7 +206,8 @@ public class ElasticsearchQueryStore implements QueryStore {
                     .start();
 
             action = DATA_STORE;
-            final Document translatedDocument = dataStore.save(tableMeta, document);
+            final SavedDocument savedDocument = dataStore.saveSerialized(tableMeta, document);
+            final Document translatedDocument = savedDocument.getDocument();
             logger.debug("DataStoreTook:{}", stopwatch.elapsed(TimeUnit.MILLISECONDS));
 
             MetricUtil.getInstance()
@@ -146,10 +217,12 @@ public class ElasticsearchQueryStore implements QueryStore {
 
             action = QUERY_STORE;
             long timestamp = translatedDocument.getTimestamp();
-            IndexRequest indexRequest = new IndexRequest(ElasticsearchUtils.getCurrentIndex(table, timestamp))
+            final String index = ElasticsearchUtils.getCurrentIndex(table, timestamp);
+            registerIndexWrite(index);
+            IndexRequest indexRequest = new IndexRequest(index)
                     .type(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
                     .id(translatedDocument.getId())
-                    .source(convert(table, translatedDocument))
+                    .source(convert(table, savedDocument), XContentType.JSON)
                     .timeout(new TimeValue(2, TimeUnit.SECONDS));
             getConnection()
                     .getClient()
@@ -191,7 +264,7 @@ public class ElasticsearchQueryStore implements QueryStore {
                     .start();
 
             action = DATA_STORE;
-            final List<Document> translatedDocuments = dataStore.saveAll(tableMeta, documents);
+            final List<SavedDocument> savedDocuments = dataStore.saveAllSerialized(tableMeta, documents);
             logger.info("DataStoreTook:{}", stopwatch.elapsed(TimeUnit.MILLISECONDS));
             MetricUtil.getInstance()
                     .registerActionSuccess(action, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
@@ -199,39 +272,15 @@ public class ElasticsearchQueryStore implements QueryStore {
                     .start();
 
             action = QUERY_STORE;
-            BulkRequest bulkRequest = new BulkRequest();
-            DateTime dateTime = new DateTime().plusDays(1);
-            for (Document document : translatedDocuments) {
-                long timestamp = document.getTimestamp();
-                if (dateTime.minus(timestamp)
-                        .getMillis() < 0) {
-                    continue;
-                }
-                final String index = ElasticsearchUtils.getCurrentIndex(table, timestamp);
-                IndexRequest indexRequest = new IndexRequest().index(index)
-                        .type(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
-                        .id(document.getId())
-                        .source(convert(table, document));
-                bulkRequest.add(indexRequest);
-            }
+            BulkRequest bulkRequest = getBulkRequest(table, savedDocuments);
             if (bulkRequest.numberOfActions() > 0) {
-                bulkRequest
-                        .timeout(new TimeValue(10, TimeUnit.SECONDS));
                 BulkResponse responses = getConnection()
                         .getClient()
                         .bulk(bulkRequest);
                 logger.info("QueryStoreTook:{}", stopwatch.elapsed(TimeUnit.MILLISECONDS));
                 MetricUtil.getInstance()
                         .registerActionSuccess(action, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
-                for (int i = 0; i < responses.getItems().length; i++) {
-                    BulkItemResponse itemResponse = responses.getItems()[i];
-                    if (itemResponse.isFailed()) {
-                        String failedDocument = mapper.writeValueAsString(documents.get(i));
-                        logger.error("Table : {} Failure Message : {} Document : {}", table, itemResponse.getFailureMessage(),
-                                failedDocument
-                        );
-                    }
-                }
+                logBulkFailures(table, responses, documents);
             }
         } catch (JsonProcessingException e) {
             MetricUtil.getInstance()
@@ -248,15 +297,100 @@ public class ElasticsearchQueryStore implements QueryStore {
 
     @Override
     @Timed
+    public CompletableFuture<Void> saveAsync(String table, List<Document> documents, IngestionAckPolicy ackPolicy) {
+        final String tableName = ElasticsearchUtils.getValidTableName(table);
+        if (!tableMetadataManager.exists(tableName)) {
+            throw FoxtrotExceptions.createBadRequestException(tableName, String.format(UNKNOWN_TABLE_ERROR_MESSAGE, tableName));
+        }
+        if (documents == null || documents.isEmpty()) {
+            throw FoxtrotExceptions.createBadRequestException(tableName, "Empty Document List Not Allowed");
+        }
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        final Table tableMeta = tableMetadataManager.get(tableName);
+        MetricUtil.getInstance()
+                .registerActionSuccess(TABLE_META, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        stopwatch.reset()
+                .start();
+
+        // HBase 1.x client has no non-blocking table, data store write stays on the calling thread
+        final List<SavedDocument> savedDocuments;
+        try {
+            savedDocuments = dataStore.saveAllSerialized(tableMeta, documents);
+        } catch (RuntimeException e) {
+            MetricUtil.getInstance()
+                    .registerActionFailure(DATA_STORE, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            throw e;
+        }
+        MetricUtil.getInstance()
+                .registerActionSuccess(DATA_STORE, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        stopwatch.reset()
+                .start();
+
+        final BulkRequest bulkRequest;
+        try {
+            bulkRequest = getBulkRequest(tableName, savedDocuments);
+        } catch (RuntimeException e) {
+            MetricUtil.getInstance()
+                    .registerActionFailure(QUERY_STORE, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            throw e;
+        }
+        if (bulkRequest.numberOfActions() == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> queryStoreFuture = new CompletableFuture<>();
+        getConnection()
+                .getClient()
+                .bulkAsync(bulkRequest, RequestOptions.DEFAULT, new ActionListener<BulkResponse>() {
+                    @Override
+                    public void onResponse(BulkResponse responses) {
+                        MetricUtil.getInstance()
+                                .registerActionSuccess(QUERY_STORE, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                        try {
+                            logBulkFailures(tableName, responses, documents);
+                        } catch (JsonProcessingException e) {
+                            logger.error("Error serializing failed documents for table : {}", tableName, e);
+                        }
+                        queryStoreFuture.complete(null);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        MetricUtil.getInstance()
+                                .registerActionFailure(QUERY_STORE, tableName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                        logger.error("Async bulk indexing failed for table : {}", tableName, e);
+                        queryStoreFuture.completeExceptionally(FoxtrotExceptions.createExecutionException(tableName, e));
+                    }
+                });
+        return ackPolicy == IngestionAckPolicy.DATA_STORE
+                ? CompletableFuture.completedFuture(null)
+                : queryStoreFuture;
+    }
+
+    @Override
     public Document get(String table, String id) {
+        return get(table, id, null);
+    }
+
+    @Override
+    @Timed
+    public Document get(String table, String id, Interval timeHint) {
         table = ElasticsearchUtils.getValidTableName(table);
         Table fxTable;
         if (!tableMetadataManager.exists(table)) {
             throw FoxtrotExceptions.createBadRequestException(table, String.format(UNKNOWN_TABLE_ERROR_MESSAGE, table));
         }
         fxTable = tableMetadataManager.get(table);
+        String resolvedId = dataStore.resolveIds(fxTable, Collections.singletonList(id))
+                .get(id);
+        if (null != resolvedId) {
+            return dataStore.get(fxTable, resolvedId);
+        }
+        if (isRawStorageKey(id)) {
+            return dataStore.get(fxTable, id);
+        }
         String lookupKey;
-        val searchRequest = new SearchRequest(ElasticsearchUtils.getIndices(table))
+        val searchRequest = new SearchRequest(getLookupIndices(table, timeHint))
+                .indicesOptions(Utils.indicesOptions())
                 .types(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
                 .source(new SearchSourceBuilder()
                         .query(boolQuery().filter(termQuery(ElasticsearchUtils.DOCUMENT_META_ID_FIELD_NAME, id)))
@@ -287,29 +421,68 @@ public class ElasticsearchQueryStore implements QueryStore {
         return getAll(table, ids, false);
     }
 
+    @Override
+    @Timed
+    public List<Document> getAll(String table, List<String> ids, Interval timeHint) {
+        return getAll(table, ids, false, timeHint);
+    }
+
     @Override
     @Timed
     public List<Document> getAll(String table, List<String> ids, boolean bypassMetalookup) {
+        return getAll(table, ids, bypassMetalookup, null);
+    }
+
+    @Override
+    @Timed
+    public MultiGetResult getAllAvailable(String table, List<String> ids, boolean bypassMetalookup) {
+        return getAllAvailable(table, ids, bypassMetalookup, null);
+    }
+
+    private List<Document> getAll(String table, List<String> ids, boolean bypassMetalookup, Interval timeHint) {
+        MultiGetResult result = getAllAvailable(table, ids, bypassMetalookup, timeHint);
+        if (!result.getMissingIds()
+                .isEmpty()) {
+            logger.error("ID's missing in data store - {}", result.getMissingIds());
+            throw FoxtrotExceptions.createMissingDocumentsException(
+                    tableMetadataManager.get(ElasticsearchUtils.getValidTableName(table)), result.getMissingIds());
+        }
+        return result.getDocuments();
+    }
+
+    private MultiGetResult getAllAvailable(String table, List<String> ids, boolean bypassMetalookup,
+                                           Interval timeHint) {
         table = ElasticsearchUtils.getValidTableName(table);
         if (!tableMetadataManager.exists(table)) {
             throw FoxtrotExceptions.createBadRequestException(table, String.format(UNKNOWN_TABLE_ERROR_MESSAGE, table));
         }
+        Table fxTable = tableMetadataManager.get(table);
         Map<String, String> rowKeys = Maps.newLinkedHashMap();
         for (String id : ids) {
             rowKeys.put(id, id);
         }
+        List<String> unresolvedIds = ids;
         if (!bypassMetalookup) {
+            Map<String, String> resolvedIds = dataStore.resolveIds(fxTable, ids);
+            rowKeys.putAll(resolvedIds);
+            unresolvedIds = ids.stream()
+                    .filter(id -> !resolvedIds.containsKey(id) && !isRawStorageKey(id))
+                    .collect(Collectors.toList());
+        }
+        if (!bypassMetalookup && !unresolvedIds.isEmpty()) {
             SearchResponse response = null;
             try {
                 response = connection.getClient()
-                        .search(new SearchRequest(ElasticsearchUtils.getIndices(table))
+                        .search(new SearchRequest(getLookupIndices(table, timeHint))
+                                .indicesOptions(Utils.indicesOptions())
                                 .types(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
                                 .source(new SearchSourceBuilder()
                                         .query(boolQuery().filter(termsQuery(
-                                                ElasticsearchUtils.DOCUMENT_META_ID_FIELD_NAME, ids.toArray(new String[ids.size()]))))
+                                                ElasticsearchUtils.DOCUMENT_META_ID_FIELD_NAME,
+                                                unresolvedIds.toArray(new String[unresolvedIds.size()]))))
                                         .fetchSource(false)
                                         .storedField(ElasticsearchUtils.DOCUMENT_META_ID_FIELD_NAME) // Used for compatibility
-                                        .size(ids.size())), RequestOptions.DEFAULT);
+                                        .size(unresolvedIds.size())), RequestOptions.DEFAULT);
             } catch (IOException e) {
                 throw new RuntimeException(e); //TODO
             }
@@ -322,7 +495,39 @@ public class ElasticsearchQueryStore implements QueryStore {
             }
         }
         logger.info("Get row keys: {}", rowKeys.size());
-        return dataStore.getAll(tableMetadataManager.get(table), ImmutableList.copyOf(rowKeys.values()));
+        MultiGetResult result = dataStore.getAllAvailable(fxTable, ImmutableList.copyOf(rowKeys.values()));
+        if (result.getMissingIds()
+                .isEmpty()) {
+            return result;
+        }
+        // Missing rows are reported under the ids they were requested with
+        Set<String> missingRowKeys = new HashSet<>(result.getMissingIds());
+        List<String> missingIds = rowKeys.entrySet()
+                .stream()
+                .filter(rowKey -> missingRowKeys.contains(rowKey.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return new MultiGetResult(result.getDocuments(), missingIds);
+    }
+
+    /**
+     * v2 raw storage keys already identify the row, they do not need to be looked up in the query store
+     */
+    private boolean isRawStorageKey(String id) {
+        return id.endsWith(Constants.RAW_KEY_VERSION_TO_SUFFIX_MAP.get("2.0"));
+    }
+
+    private String[] getLookupIndices(String table, Interval timeHint) {
+        if (null == timeHint) {
+            return new String[]{ElasticsearchUtils.getIndices(table)};
+        }
+        return ElasticsearchUtils.getIndices(table, timeHint, indexCatalog);
+    }
+
+    private void registerIndexWrite(String index) {
+        if (null != indexCatalog) {
+            indexCatalog.register(index);
+        }
     }
 
     @Override
@@ -398,14 +603,133 @@ public class ElasticsearchQueryStore implements QueryStore {
         return tableMetadataManager.getFieldMappings(table, false, false);
     }
 
-    private Map<String, Object> convert(String table, Document document) {
-        JsonNode metaNode = mapper.valueToTree(document.getMetadata());
-        ObjectNode dataNode = document.getData()
-                .deepCopy();
-        dataNode.set(ElasticsearchUtils.DOCUMENT_META_FIELD_NAME, metaNode);
-        dataNode.set(ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME, mapper.valueToTree(document.getDate()));
-        mutators.forEach(mutator -> mutator.mutate(table, document.getId(), dataNode));
-        return ElasticsearchQueryUtils.toMap(mapper, dataNode);
+    private void saveBuffered(String table, Document document) {
+        if (document == null || document.getData() == null || document.getId() == null) {
+            throw FoxtrotExceptions.createBadRequestException(table, "Invalid Input Document");
+        }
+        try {
+            ingestionBuffer.submit(table, document)
+                    .get(ingestionBufferConfig.getSaveTimeoutInMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw FoxtrotExceptions.createExecutionException(table, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw FoxtrotExceptions.createExecutionException(table, e);
+        } catch (TimeoutException e) {
+            logger.error("Buffered save timed out for table: {}", table);
+            throw FoxtrotExceptions.createExecutionException(table, e);
+        }
+    }
+
+    private void saveBatch(String table, List<PendingDocument> batch) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        final Table tableMeta = tableMetadataManager.get(table);
+        MetricUtil.getInstance()
+                .registerActionSuccess(TABLE_META, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        stopwatch.reset()
+                .start();
+
+        final List<SavedDocument> savedDocuments;
+        try {
+            savedDocuments = dataStore.saveAllSerialized(tableMeta, batch.stream()
+                    .map(PendingDocument::getDocument)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            MetricUtil.getInstance()
+                    .registerActionFailure(DATA_STORE, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            throw e;
+        }
+        MetricUtil.getInstance()
+                .registerActionSuccess(DATA_STORE, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        stopwatch.reset()
+                .start();
+
+        BulkRequest bulkRequest = new BulkRequest();
+        for (SavedDocument savedDocument : savedDocuments) {
+            bulkRequest.add(getIndexRequest(table, savedDocument));
+        }
+        bulkRequest.timeout(new TimeValue(10, TimeUnit.SECONDS));
+        getConnection()
+                .getClient()
+                .bulkAsync(bulkRequest, RequestOptions.DEFAULT, new ActionListener<BulkResponse>() {
+                    @Override
+                    public void onResponse(BulkResponse responses) {
+                        MetricUtil.getInstance()
+                                .registerActionSuccess(QUERY_STORE, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                        BulkItemResponse[] items = responses.getItems();
+                        for (int i = 0; i < batch.size(); i++) {
+                            if (i < items.length && items[i].isFailed()) {
+                                logger.error("Table : {} Failure Message : {} Document Id : {}", table,
+                                        items[i].getFailureMessage(), batch.get(i)
+                                                .getDocument()
+                                                .getId());
+                                batch.get(i)
+                                        .fail(FoxtrotExceptions.createExecutionException(table, items[i].getFailure()
+                                                .getCause()));
+                            } else {
+                                batch.get(i)
+                                        .succeed();
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        MetricUtil.getInstance()
+                                .registerActionFailure(QUERY_STORE, table, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                        batch.forEach(pendingDocument -> pendingDocument.fail(
+                                FoxtrotExceptions.createExecutionException(table, e)));
+                    }
+                });
+    }
+
+    private BulkRequest getBulkRequest(String table, List<SavedDocument> savedDocuments) {
+        BulkRequest bulkRequest = new BulkRequest();
+        DateTime dateTime = new DateTime().plusDays(1);
+        for (SavedDocument savedDocument : savedDocuments) {
+            long timestamp = savedDocument.getDocument()
+                    .getTimestamp();
+            if (dateTime.minus(timestamp)
+                    .getMillis() < 0) {
+                continue;
+            }
+            bulkRequest.add(getIndexRequest(table, savedDocument));
+        }
+        return bulkRequest.timeout(new TimeValue(10, TimeUnit.SECONDS));
+    }
+
+    private IndexRequest getIndexRequest(String table, SavedDocument savedDocument) {
+        final Document document = savedDocument.getDocument();
+        final String index = ElasticsearchUtils.getCurrentIndex(table, document.getTimestamp());
+        registerIndexWrite(index);
+        return new IndexRequest().index(index)
+                .type(ElasticsearchUtils.DOCUMENT_TYPE_NAME)
+                .id(document.getId())
+                .source(convert(table, savedDocument), XContentType.JSON);
+    }
+
+    private void logBulkFailures(String table, BulkResponse responses, List<Document> documents) throws JsonProcessingException {
+        for (int i = 0; i < responses.getItems().length; i++) {
+            BulkItemResponse itemResponse = responses.getItems()[i];
+            if (itemResponse.isFailed()) {
+                String failedDocument = mapper.writeValueAsString(documents.get(i));
+                logger.error("Table : {} Failure Message : {} Document : {}", table, itemResponse.getFailureMessage(),
+                        failedDocument
+                );
+            }
+        }
+    }
+
+    private byte[] convert(String table, SavedDocument savedDocument) {
+        try {
+            return indexSourceWriter.write(table, savedDocument.getDocument(), savedDocument.getSerialized());
+        } catch (IOException e) {
+            throw FoxtrotExceptions.createBadRequestException(table, e);
+        }
     }
 
     private void deleteIndices(List<String> indicesToDelete) {
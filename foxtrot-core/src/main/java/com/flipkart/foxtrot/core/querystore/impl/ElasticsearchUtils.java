@@ -36,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -88,20 +89,66 @@ public class ElasticsearchUtils {
         return String.format("%s-%s-%s-*", getTableNamePrefix(), table, ElasticsearchUtils.TABLENAME_POSTFIX);
     }
 
-    public static String[] getIndices(final String table, final ActionRequest request) {
-        return getIndices(table, request, new PeriodSelector(request.getFilters()).analyze());
+    public static String[] getIndices(final String table, final ActionRequest request,
+                                      final IndexCatalog indexCatalog) {
+        return getIndices(table, request, new PeriodSelector(request.getFilters()).analyze(), indexCatalog);
     }
 
     @VisibleForTesting
     public static String[] getIndices(final String table, final ActionRequest request, final Interval interval) {
-        DateTime start = interval.getStart()
-                .toLocalDate()
-                .toDateTimeAtStartOfDay();
-        if (start.getYear() <= 1970) {
+        return getIndices(table, request, interval, null);
+    }
+
+    public static String[] getIndices(final String table, final ActionRequest request, final Interval interval,
+                                      final IndexCatalog indexCatalog) {
+        if (isUnbounded(interval)) {
             logger.warn("Request of type {} running on all indices", request.getClass()
                     .getSimpleName());
             return new String[]{getIndices(table)};
         }
+        String[] indices = getIndices(table, interval, indexCatalog);
+        logger.info("Request of type {} on indices: {}", request.getClass()
+                .getSimpleName(), Arrays.asList(indices));
+        return indices;
+    }
+
+    public static String[] getIndices(final String table, final Interval interval) {
+        return getIndices(table, interval, null);
+    }
+
+    /**
+     * Daily indices of the table covering the interval, or all indices of the table if the interval has no lower bound.
+     * Indices the catalog knows not to hold any document are left out, unless that leaves none.
+     * @param indexCatalog null to keep all daily indices
+     */
+    public static String[] getIndices(final String table, final Interval interval, final IndexCatalog indexCatalog) {
+        if (isUnbounded(interval)) {
+            return new String[]{getIndices(table)};
+        }
+        final String[] indices = getDayIndices(table, interval);
+        if (null == indexCatalog) {
+            return indices;
+        }
+        final String[] existing = indexCatalog.filter(table, indices);
+        return existing.length == 0 ? indices : existing;
+    }
+
+    /**
+     * @return false if the request is known to cover no index of the table, so no document can match it
+     */
+    public static boolean hasIndices(final String table, final ActionRequest request,
+                                     final IndexCatalog indexCatalog) {
+        if (null == indexCatalog) {
+            return true;
+        }
+        final Interval interval = new PeriodSelector(request.getFilters()).analyze();
+        return isUnbounded(interval) || indexCatalog.filter(table, getDayIndices(table, interval)).length > 0;
+    }
+
+    private static String[] getDayIndices(final String table, final Interval interval) {
+        DateTime start = interval.getStart()
+                .toLocalDate()
+                .toDateTimeAtStartOfDay();
         List<String> indices = Lists.newArrayList();
         final DateTime end = interval.getEnd()
                 .plusDays(1)
@@ -112,11 +159,16 @@ public class ElasticsearchUtils {
             indices.add(index);
             start = start.plusDays(1);
         }
-        logger.info("Request of type {} on indices: {}", request.getClass()
-                .getSimpleName(), indices);
         return indices.toArray(new String[0]);
     }
 
+    private static boolean isUnbounded(final Interval interval) {
+        return interval.getStart()
+                .toLocalDate()
+                .toDateTimeAtStartOfDay()
+                .getYear() <= 1970;
+    }
+
     public static String getCurrentIndex(final String table, long timestamp) {
         //TODO::THROW IF TIMESTAMP IS BEYOND TABLE META.TTL
         String datePostfix = FORMATTER.print(timestamp);
@@ -0,0 +1,176 @@
+package com.flipkart.foxtrot.core.querystore.impl;
+
+import com.flipkart.foxtrot.common.Table;
+import com.flipkart.foxtrot.core.config.IndexCatalogConfig;
+import com.flipkart.foxtrot.core.table.TableMetadataManager;
+import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.vyarus.dropwizard.guice.module.installer.order.Order;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Names of the table indices present in the cluster. The catalog is reloaded from elasticsearch periodically and
+ * indices written from this node are added to it as they are created, indices created by other nodes show up on the
+ * next refresh.
+ * <p>
+ * Daily indices of the day of the last refresh or later can be created at any time and are always taken to exist.
+ * Indices of earlier days are dropped if they are not in the catalog or are past the ttl of the table. Table ttls are
+ * read along with the indices on each refresh, not on every query.
+ */
+@Singleton
+@Order(16)
+public class IndexCatalog implements Managed {
+    private static final Logger logger = LoggerFactory.getLogger(IndexCatalog.class.getSimpleName());
+
+    private final IndexCatalogConfig config;
+    private final ElasticsearchConnection connection;
+    private final TableMetadataManager tableMetadataManager;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private volatile Snapshot snapshot;
+    private volatile Set<String> written = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> refreshTask;
+
+    @Inject
+    public IndexCatalog(IndexCatalogConfig config, ElasticsearchConnection connection,
+                        TableMetadataManager tableMetadataManager, ScheduledExecutorService scheduledExecutorService) {
+        this.config = config;
+        this.connection = connection;
+        this.tableMetadataManager = tableMetadataManager;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!config.isEnabled()) {
+            logger.info("Index catalog disabled");
+            return;
+        }
+        logger.info("Starting Index Catalog");
+        refresh();
+        refreshTask = scheduledExecutorService.scheduleAtFixedRate(this::refresh,
+                config.getRefreshIntervalInSeconds(), config.getRefreshIntervalInSeconds(), TimeUnit.SECONDS);
+        logger.info("Started Index Catalog");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        snapshot = null;
+        if (null != refreshTask) {
+            refreshTask.cancel(false);
+        }
+        logger.info("Stopped Index Catalog");
+    }
+
+    /**
+     * @return the indices that can hold documents, in the given order
+     */
+    public String[] filter(String table, String[] dayIndices) {
+        final Snapshot current = snapshot;
+        if (null == current) {
+            return dayIndices;
+        }
+        // Tables created after the refresh are not in the snapshot yet
+        final Table tableMeta = current.tables.containsKey(table)
+                                ? current.tables.get(table)
+                                : tableMetadataManager.get(table);
+        final List<String> existing = new ArrayList<>(dayIndices.length);
+        for (String index : dayIndices) {
+            if (ElasticsearchUtils.isIndexEligibleForDeletion(index, tableMeta)) {
+                continue;
+            }
+            if (current.indices.contains(index) || !ElasticsearchUtils.parseIndexDate(index, table)
+                    .isBefore(current.refreshedDay)) {
+                existing.add(index);
+            }
+        }
+        return existing.toArray(new String[0]);
+    }
+
+    void register(String index) {
+        final Snapshot current = snapshot;
+        if (null != current && !current.indices.contains(index)) {
+            current.indices.add(index);
+            written.add(index);
+        }
+    }
+
+    private void refresh() {
+        final Set<String> writtenBefore = written;
+        written = ConcurrentHashMap.newKeySet();
+        final long timestamp = System.currentTimeMillis();
+        try {
+            update(listIndices(), tableMetadataManager.get(), writtenBefore, timestamp);
+        } catch (Exception e) {
+            written.addAll(writtenBefore);
+            logger.error("Error refreshing index catalog", e);
+        }
+    }
+
+    /**
+     * Indices written while the cluster was being listed might be missing from the listing, so they are kept too
+     */
+    @VisibleForTesting
+    void update(Collection<String> listed, Collection<Table> tables, Collection<String> writtenBefore,
+                long timestamp) {
+        final Set<String> known = ConcurrentHashMap.newKeySet();
+        known.addAll(listed);
+        known.addAll(writtenBefore);
+        known.addAll(written);
+        final Map<String, Table> tablesByName = new HashMap<>();
+        for (Table table : tables) {
+            tablesByName.put(table.getName(), table);
+        }
+        snapshot = new Snapshot(known, tablesByName, new DateTime(timestamp).withTimeAtStartOfDay()
+                .getMillis());
+        logger.debug("Index catalog refreshed with {} indices", known.size());
+    }
+
+    private Set<String> listIndices() throws IOException {
+        final Request request = new Request("GET", "/_cat/indices/" + ElasticsearchUtils.getAllIndicesPattern());
+        request.addParameter("h", "index");
+        final Response response = connection.getClient()
+                .getLowLevelClient()
+                .performRequest(request);
+        final Set<String> listed = new HashSet<>();
+        for (String line : StringUtils.split(EntityUtils.toString(response.getEntity()), '\n')) {
+            if (StringUtils.isNotBlank(line)) {
+                listed.add(line.trim());
+            }
+        }
+        return listed;
+    }
+
+    private static final class Snapshot {
+        private final Set<String> indices;
+        private final Map<String, Table> tables;
+        private final long refreshedDay;
+
+        private Snapshot(Set<String> indices, Map<String, Table> tables, long refreshedDay) {
+            this.indices = indices;
+            this.tables = tables;
+            this.refreshedDay = refreshedDay;
+        }
+    }
+}
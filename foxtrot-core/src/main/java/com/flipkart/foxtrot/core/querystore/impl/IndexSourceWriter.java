@@ -0,0 +1,195 @@
+package com.flipkart.foxtrot.core.querystore.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.core.datastore.SerializedDocument;
+import com.flipkart.foxtrot.core.querystore.mutator.IndexerEventMutator;
+import com.flipkart.foxtrot.core.querystore.mutator.StreamingIndexerEventMutator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/***
+ Writes the elasticsearch source of a document, i.e. the document data along with foxtrot metadata and date, as
+ json bytes. When all mutators can be applied as token filters the document is written in a single pass straight
+ from the original tree; otherwise a copy of the tree is mutated and serialized. When the data store has already
+ serialized the document and no mutator is active, the existing bytes are spliced together without re-serializing.
+ ***/
+public class IndexSourceWriter {
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final byte[] META_FIELD_PREFIX = ("\"" + ElasticsearchUtils.DOCUMENT_META_FIELD_NAME + "\":")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIME_FIELD_PREFIX = (",\"" + ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME + "\":")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper;
+    private final List<IndexerEventMutator> mutators;
+    private final List<StreamingIndexerEventMutator> streamingMutators;
+    private final boolean streamable;
+
+    public IndexSourceWriter(ObjectMapper mapper, List<IndexerEventMutator> mutators) {
+        this.mapper = mapper;
+        this.mutators = mutators;
+        this.streamingMutators = new ArrayList<>();
+        boolean allStreaming = true;
+        for (IndexerEventMutator mutator : mutators) {
+            if (mutator instanceof StreamingIndexerEventMutator) {
+                streamingMutators.add((StreamingIndexerEventMutator) mutator);
+            } else {
+                allStreaming = false;
+            }
+        }
+        this.streamable = allStreaming;
+    }
+
+    /***
+     Builds the source by splicing bytes already serialized for the data store when nothing needs to be filtered
+     out of the document, falls back to {@link #write(String, Document)} otherwise.
+     ***/
+    public byte[] write(String table, Document document, SerializedDocument serializedDocument) throws IOException {
+        if (serializedDocument == null || !canSplice(document)) {
+            return write(table, document);
+        }
+        return splice(serializedDocument);
+    }
+
+    public byte[] write(String table, Document document) throws IOException {
+        if (!streamable) {
+            return mapper.writeValueAsBytes(mutatedCopy(table, document));
+        }
+        ByteArrayBuilder buffer = new ByteArrayBuilder(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator generator = mapper.getFactory()
+                .createGenerator(buffer)) {
+            writeObject(generator, table, document.getId(), document.getData(), true);
+            generator.writeFieldName(ElasticsearchUtils.DOCUMENT_META_FIELD_NAME);
+            mapper.writeValue(generator, document.getMetadata());
+            generator.writeFieldName(ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME);
+            mapper.writeValue(generator, document.getDate());
+            generator.writeEndObject();
+        }
+        byte[] source = buffer.toByteArray();
+        buffer.release();
+        return source;
+    }
+
+    private boolean canSplice(Document document) {
+        JsonNode data = document.getData();
+        if (data == null || !data.isObject() || data.has(ElasticsearchUtils.DOCUMENT_META_FIELD_NAME)
+                || data.has(ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME)) {
+            return false;
+        }
+        for (IndexerEventMutator mutator : mutators) {
+            if (mutator.isActive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] splice(SerializedDocument serializedDocument) {
+        byte[] data = serializedDocument.getData();
+        byte[] metadata = serializedDocument.getMetadata();
+        byte[] date = serializedDocument.getDate();
+        int end = data.length - 1;
+        while (end > 0 && data[end] != '}') {
+            end--;
+        }
+        boolean emptyData = true;
+        for (int i = 1; i < end; i++) {
+            if (!Character.isWhitespace(data[i])) {
+                emptyData = false;
+                break;
+            }
+        }
+        int length = end + (emptyData ? 0 : 1) + META_FIELD_PREFIX.length + metadata.length
+                + TIME_FIELD_PREFIX.length + date.length + 1;
+        byte[] source = new byte[length];
+        int position = 0;
+        System.arraycopy(data, 0, source, position, end);
+        position += end;
+        if (!emptyData) {
+            source[position++] = ',';
+        }
+        System.arraycopy(META_FIELD_PREFIX, 0, source, position, META_FIELD_PREFIX.length);
+        position += META_FIELD_PREFIX.length;
+        System.arraycopy(metadata, 0, source, position, metadata.length);
+        position += metadata.length;
+        System.arraycopy(TIME_FIELD_PREFIX, 0, source, position, TIME_FIELD_PREFIX.length);
+        position += TIME_FIELD_PREFIX.length;
+        System.arraycopy(date, 0, source, position, date.length);
+        position += date.length;
+        source[position] = '}';
+        return source;
+    }
+
+    private ObjectNode mutatedCopy(String table, Document document) {
+        ObjectNode dataNode = document.getData()
+                .deepCopy();
+        dataNode.set(ElasticsearchUtils.DOCUMENT_META_FIELD_NAME, mapper.valueToTree(document.getMetadata()));
+        dataNode.set(ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME, mapper.valueToTree(document.getDate()));
+        mutators.forEach(mutator -> mutator.mutate(table, document.getId(), dataNode));
+        return dataNode;
+    }
+
+    /***
+     Writes the fields of an object node. The closing token is left to the caller for the root object so that
+     metadata fields can be appended.
+     ***/
+    private void writeObject(JsonGenerator generator, String table, String documentId, JsonNode node, boolean root)
+            throws IOException {
+        generator.writeStartObject();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            JsonNode value = field.getValue();
+            if (root && (ElasticsearchUtils.DOCUMENT_META_FIELD_NAME.equals(key)
+                    || ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME.equals(key))) {
+                continue;
+            }
+            if (value.isTextual() && drop(table, documentId, key, value.textValue())) {
+                continue;
+            }
+            generator.writeFieldName(key);
+            writeValue(generator, table, documentId, key, value);
+        }
+        if (!root) {
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeValue(JsonGenerator generator, String table, String documentId, String key, JsonNode value)
+            throws IOException {
+        if (value.isObject()) {
+            writeObject(generator, table, documentId, value, false);
+        } else if (value.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode element : value) {
+                if (element.isTextual() && drop(table, documentId, key, element.textValue())) {
+                    continue;
+                }
+                writeValue(generator, table, documentId, key, element);
+            }
+            generator.writeEndArray();
+        } else {
+            mapper.writeTree(generator, value);
+        }
+    }
+
+    private boolean drop(String table, String documentId, String key, String value) {
+        for (StreamingIndexerEventMutator mutator : streamingMutators) {
+            if (mutator.dropTextValue(table, documentId, key, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.flipkart.foxtrot.core.querystore.impl;
+
+import lombok.Data;
+
+/***
+ Cache settings for a single opcode. Settings left null fall back to the ones in {@link CacheConfig}, 0 is a setting
+ of its own, e.g. a localCacheSize of 0 disables the local tier for the opcode.
+ ***/
+@Data
+public class OpcodeCacheConfig {
+
+    private Integer maxIdleSeconds;
+    private Integer timeToLiveSeconds;
+    private Integer size;
+    private Integer localCacheSize;
+    private Integer localCacheTimeToLiveSeconds;
+}
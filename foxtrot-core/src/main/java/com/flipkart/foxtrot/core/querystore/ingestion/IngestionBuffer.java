@@ -0,0 +1,160 @@
+package com.flipkart.foxtrot.core.querystore.ingestion;
+
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.core.config.IngestionBufferConfig;
+import com.flipkart.foxtrot.core.util.DocumentSizeEstimator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/***
+ Per table buffer that groups concurrent single document saves into batches. Callers get a future that is
+ completed individually for every document once the batch containing it has been written.
+ ***/
+public class IngestionBuffer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(IngestionBuffer.class.getSimpleName());
+
+    /***
+     Writes a flushed batch. Implementations must complete every pending document in the batch.
+     ***/
+    public interface BatchHandler {
+        void handle(String table, List<PendingDocument> batch);
+    }
+
+    private final IngestionBufferConfig config;
+    private final BatchHandler handler;
+    private final Map<String, TableBatch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lingerScheduler;
+    private final ExecutorService flushExecutor;
+    private volatile boolean closed;
+
+    public IngestionBuffer(IngestionBufferConfig config, BatchHandler handler) {
+        this.config = config;
+        this.handler = handler;
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ingestion-linger-%d")
+                .setDaemon(true)
+                .build());
+        this.flushExecutor = Executors.newFixedThreadPool(config.getFlushThreads(), new ThreadFactoryBuilder()
+                .setNameFormat("ingestion-flush-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    public CompletableFuture<Void> submit(String table, Document document) {
+        PendingDocument pendingDocument = new PendingDocument(document, DocumentSizeEstimator.estimate(document));
+        if (closed) {
+            pendingDocument.fail(new RejectedExecutionException("Ingestion buffer is closed"));
+            return pendingDocument.getFuture();
+        }
+        TableBatch batch = batches.computeIfAbsent(table, TableBatch::new);
+        List<PendingDocument> ready = batch.add(pendingDocument);
+        if (ready != null) {
+            dispatch(table, ready);
+        }
+        return pendingDocument.getFuture();
+    }
+
+    /***
+     Flushes the documents still waiting and waits for the flushes to finish. Documents submitted afterwards fail.
+     ***/
+    @Override
+    public void close() {
+        closed = true;
+        for (TableBatch batch : batches.values()) {
+            List<PendingDocument> ready = batch.drain();
+            if (!ready.isEmpty()) {
+                dispatch(batch.table, ready);
+            }
+        }
+        lingerScheduler.shutdown();
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(config.getLingerTimeInMillis() + 10_000L, TimeUnit.MILLISECONDS)) {
+                logger.warn("Ingestion buffer did not drain in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+
+    private void flush(String table) {
+        TableBatch batch = batches.get(table);
+        if (batch == null) {
+            return;
+        }
+        List<PendingDocument> ready = batch.drain();
+        if (!ready.isEmpty()) {
+            dispatch(table, ready);
+        }
+    }
+
+    private void dispatch(String table, List<PendingDocument> ready) {
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    handler.handle(table, ready);
+                } catch (Exception e) {
+                    logger.error("Error flushing ingestion batch for table : {}", table, e);
+                    ready.forEach(pendingDocument -> pendingDocument.fail(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            ready.forEach(pendingDocument -> pendingDocument.fail(e));
+        }
+    }
+
+    private class TableBatch {
+        private final String table;
+        private List<PendingDocument> documents = new ArrayList<>();
+        private long sizeInBytes;
+        private ScheduledFuture<?> lingerTask;
+
+        private TableBatch(String table) {
+            this.table = table;
+        }
+
+        /***
+         @return documents to flush if this addition filled the batch, null otherwise
+         ***/
+        private synchronized List<PendingDocument> add(PendingDocument pendingDocument) {
+            documents.add(pendingDocument);
+            sizeInBytes += pendingDocument.getEstimatedSizeInBytes();
+            if (documents.size() >= config.getMaxBatchSize() || sizeInBytes >= config.getMaxBatchSizeInBytes()) {
+                return drain();
+            }
+            if (lingerTask == null) {
+                try {
+                    lingerTask = lingerScheduler.schedule(() -> flush(table), config.getLingerTimeInMillis(),
+                            TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Closing, hand the batch over right away
+                    return drain();
+                }
+            }
+            return null;
+        }
+
+        private synchronized List<PendingDocument> drain() {
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            if (documents.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<PendingDocument> drained = documents;
+            documents = new ArrayList<>();
+            sizeInBytes = 0;
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.flipkart.foxtrot.core.querystore.ingestion;
+
+import com.flipkart.foxtrot.common.Document;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/***
+ A document waiting in an {@link IngestionBuffer} along with the future its caller is blocked on
+ ***/
+@Getter
+public class PendingDocument {
+
+    private final Document document;
+    private final long estimatedSizeInBytes;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    PendingDocument(Document document, long estimatedSizeInBytes) {
+        this.document = document;
+        this.estimatedSizeInBytes = estimatedSizeInBytes;
+    }
+
+    public void succeed() {
+        future.complete(null);
+    }
+
+    public void fail(Throwable t) {
+        future.completeExceptionally(t);
+    }
+}
@@ -6,4 +6,11 @@ public interface IndexerEventMutator {
 
     void mutate(String table, String documentId, JsonNode node);
 
+    /**
+     * @return false if the mutator, as currently configured, will never change a document
+     */
+    default boolean isActive() {
+        return true;
+    }
+
 }
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Random;
 
 @Slf4j
-public class LargeTextNodeRemover implements IndexerEventMutator {
+public class LargeTextNodeRemover implements StreamingIndexerEventMutator {
 
     private final ObjectMapper objectMapper;
     private final TextNodeRemoverConfiguration configuration;
@@ -32,6 +32,16 @@ public class LargeTextNodeRemover implements IndexerEventMutator {
         walkTree(table, documentId, data);
     }
 
+    @Override
+    public boolean isActive() {
+        return configuration.getBlockPercentage() > 0 || configuration.getLogSamplingPercentage() > 0;
+    }
+
+    @Override
+    public boolean dropTextValue(final String table, final String documentId, final String key, final String value) {
+        return evaluateForRemoval(table, documentId, key, value);
+    }
+
 
     private void walkTree(String table,
                           String documentId,
@@ -108,13 +118,20 @@ public class LargeTextNodeRemover implements IndexerEventMutator {
             return false;
         }
 
-        if (node.textValue().length() < configuration.getMaxAllowedSize()) {
+        return evaluateForRemoval(table, documentId, key, node.textValue());
+    }
+
+    private boolean evaluateForRemoval(final String table,
+                                       final String documentId,
+                                       final String key,
+                                       final String value) {
+        if (value == null || value.length() < configuration.getMaxAllowedSize()) {
             return false;
         }
 
         if (random.nextInt(100) < configuration.getLogSamplingPercentage()) {
             log.warn("LargeTextNodeDetected table: {} documentId: {} key: {} value: {}",
-                    table, documentId, key, node.textValue());
+                    table, documentId, key, value);
         }
 
         return random.nextInt(100) < configuration.getBlockPercentage();
@@ -0,0 +1,14 @@
+package com.flipkart.foxtrot.core.querystore.mutator;
+
+/**
+ * A mutator that can be applied while a document is being written out for indexing, without building a
+ * mutable copy of the document first.
+ */
+public interface StreamingIndexerEventMutator extends IndexerEventMutator {
+
+    /**
+     * @return true if the text value found under key should be left out of the indexed document
+     */
+    boolean dropTextValue(String table, String documentId, String key, String value);
+
+}
@@ -38,9 +38,21 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
  */
 public class ElasticSearchQueryGenerator implements FilterVisitor<Void> {
     private final BoolQueryBuilder boolFilterBuilder;
+    private final long temporalGranularityInMillis;
 
     public ElasticSearchQueryGenerator() {
+        this(0);
+    }
+
+    /**
+     * @param temporalGranularityInMillis start of relative time windows is rounded down and end rounded up to a
+     *                                    multiple of this, so that queries generated within the same granule are
+     *                                    identical and can be served from the shard request cache. Explicit bounds
+     *                                    are never rounded. 0 keeps windows as they are.
+     */
+    public ElasticSearchQueryGenerator(long temporalGranularityInMillis) {
         this.boolFilterBuilder = boolQuery();
+        this.temporalGranularityInMillis = temporalGranularityInMillis;
     }
 
     @Override
@@ -117,10 +129,10 @@ public class ElasticSearchQueryGenerator implements FilterVisitor<Void> {
 
     @Override
     public Void visit(LastFilter filter) {
-        addFilter(rangeQuery(Utils.storedFieldName(filter.getField())).from(filter.getWindow()
-                .getStartTime())
-                .to(filter.getWindow()
-                        .getEndTime()));
+        addFilter(rangeQuery(Utils.storedFieldName(filter.getField())).from(lowerBound(filter.getWindow()
+                .getStartTime()))
+                .to(upperBound(filter.getWindow()
+                        .getEndTime())));
         return null;
     }
 
@@ -137,12 +149,27 @@ public class ElasticSearchQueryGenerator implements FilterVisitor<Void> {
         return null;
     }
 
+    private long lowerBound(long time) {
+        if (temporalGranularityInMillis <= 0) {
+            return time;
+        }
+        return time - Math.floorMod(time, temporalGranularityInMillis);
+    }
+
+    private long upperBound(long time) {
+        if (temporalGranularityInMillis <= 0) {
+            return time;
+        }
+        final long remainder = Math.floorMod(time, temporalGranularityInMillis);
+        return remainder == 0 ? time : time - remainder + temporalGranularityInMillis;
+    }
+
     private void addFilter(QueryBuilder queryBuilder) {
         boolFilterBuilder.filter(queryBuilder);
     }
 
     public QueryBuilder genFilter(List<Filter> filters) {
-        for (Filter filter : filters) {
+        for (Filter filter : FilterOptimizer.optimize(filters)) {
             filter.accept(this);
         }
         return QueryBuilders.constantScoreQuery(boolFilterBuilder);
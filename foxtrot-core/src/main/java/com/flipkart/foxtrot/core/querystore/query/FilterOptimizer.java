@@ -0,0 +1,297 @@
+package com.flipkart.foxtrot.core.querystore.query;
+
+import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.common.query.FilterVisitorAdapter;
+import com.flipkart.foxtrot.common.query.datetime.LastFilter;
+import com.flipkart.foxtrot.common.query.datetime.TimeWindow;
+import com.flipkart.foxtrot.common.query.general.EqualsFilter;
+import com.flipkart.foxtrot.common.query.general.ExistsFilter;
+import com.flipkart.foxtrot.common.query.general.InFilter;
+import com.flipkart.foxtrot.common.query.general.MissingFilter;
+import com.flipkart.foxtrot.common.query.general.NotEqualsFilter;
+import com.flipkart.foxtrot.common.query.general.NotInFilter;
+import com.flipkart.foxtrot.common.query.numeric.BetweenFilter;
+import com.flipkart.foxtrot.common.query.numeric.GreaterEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.GreaterThanFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
+import com.flipkart.foxtrot.common.util.CollectionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simplifies the filters of a request before they are translated to an elasticsearch query. Filters are and-ed, so
+ * duplicates are dropped and stacked temporal ranges on a field, like the ones added by default time spans and multi
+ * queries, are merged into a single lower and upper bound.
+ * <p>
+ * Only ranges on temporal fields are merged. Any other field can hold several values in a document, and a document
+ * with values 3 and 12 matches both "greater than 10" and "less than 5".
+ */
+public class FilterOptimizer {
+
+    private FilterOptimizer() {
+    }
+
+    public static List<Filter> optimize(List<Filter> filters) {
+        if (CollectionUtils.isNullOrEmpty(filters)) {
+            return filters;
+        }
+        final List<Filter> unique = new ArrayList<>(new LinkedHashSet<>(filters));
+        final Map<String, Range> ranges = ranges(unique);
+        final List<Filter> optimized = new ArrayList<>(unique.size());
+        for (Filter filter : unique) {
+            final Range range = ranges.get(filter.getField());
+            if (null == range || !range.filters.contains(filter)) {
+                optimized.add(filter);
+            } else if (range.filters.size() == 1 || range.isEmpty()) {
+                optimized.add(filter);
+            } else if (range.filters.get(0) == filter) {
+                optimized.addAll(range.toFilters(filter.getField()));
+            }
+        }
+        return optimized;
+    }
+
+    /**
+     * @return true if no document can match all the filters
+     */
+    public static boolean isUnsatisfiable(List<Filter> filters) {
+        if (CollectionUtils.isNullOrEmpty(filters)) {
+            return false;
+        }
+        for (Range range : ranges(filters).values()) {
+            if (range.isEmpty()) {
+                return true;
+            }
+        }
+        final Map<String, Terms> terms = new LinkedHashMap<>();
+        for (Filter filter : filters) {
+            if (null != filter.getField()) {
+                filter.accept(new TermsCollector(terms.computeIfAbsent(filter.getField(), field -> new Terms())));
+            }
+        }
+        for (Terms fieldTerms : terms.values()) {
+            if (fieldTerms.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Range> ranges(List<Filter> filters) {
+        final Map<String, Range> ranges = new LinkedHashMap<>();
+        for (Filter filter : filters) {
+            if (!filter.isFilterTemporal() || null == filter.getField()) {
+                continue;
+            }
+            final Range range = ranges.computeIfAbsent(filter.getField(), field -> new Range());
+            if (filter.accept(new RangeCollector(range))) {
+                range.filters.add(filter);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Tightest bounds of all range filters on a field
+     */
+    private static final class Range {
+        private final List<Filter> filters = new ArrayList<>();
+        private Number lower;
+        private boolean lowerInclusive;
+        private Number upper;
+        private boolean upperInclusive;
+
+        private void lower(Number value, boolean inclusive) {
+            if (null == value) {
+                return;
+            }
+            final int comparison = null == lower ? 1 : compare(value, lower);
+            if (comparison > 0 || (comparison == 0 && !inclusive)) {
+                lower = value;
+                lowerInclusive = inclusive;
+            }
+        }
+
+        private void upper(Number value, boolean inclusive) {
+            if (null == value) {
+                return;
+            }
+            final int comparison = null == upper ? -1 : compare(value, upper);
+            if (comparison < 0 || (comparison == 0 && !inclusive)) {
+                upper = value;
+                upperInclusive = inclusive;
+            }
+        }
+
+        private boolean isEmpty() {
+            if (null == lower || null == upper) {
+                return false;
+            }
+            final int comparison = compare(lower, upper);
+            return comparison > 0 || (comparison == 0 && !(lowerInclusive && upperInclusive));
+        }
+
+        private List<Filter> toFilters(String field) {
+            final List<Filter> bounds = new ArrayList<>(2);
+            if (null != lower) {
+                bounds.add(lowerInclusive
+                           ? new GreaterEqualFilter(field, lower, true)
+                           : new GreaterThanFilter(field, lower, true));
+            }
+            if (null != upper) {
+                bounds.add(upperInclusive
+                           ? new LessEqualFilter(field, upper, true)
+                           : new LessThanFilter(field, upper, true));
+            }
+            return bounds;
+        }
+
+        private static int compare(Number first, Number second) {
+            return new BigDecimal(first.toString()).compareTo(new BigDecimal(second.toString()));
+        }
+    }
+
+    private static final class RangeCollector extends FilterVisitorAdapter<Boolean> {
+        private final Range range;
+
+        private RangeCollector(Range range) {
+            super(false);
+            this.range = range;
+        }
+
+        @Override
+        public Boolean visit(BetweenFilter filter) {
+            range.lower(filter.getFrom(), true);
+            range.upper(filter.getTo(), true);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(GreaterThanFilter filter) {
+            range.lower(filter.getValue(), false);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(GreaterEqualFilter filter) {
+            range.lower(filter.getValue(), true);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LessThanFilter filter) {
+            range.upper(filter.getValue(), false);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LessEqualFilter filter) {
+            range.upper(filter.getValue(), true);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LastFilter filter) {
+            if (null == filter.getDuration()) {
+                return false;
+            }
+            final TimeWindow window = filter.getWindow();
+            range.lower(window.getStartTime(), true);
+            range.upper(window.getEndTime(), true);
+            return true;
+        }
+    }
+
+    /**
+     * Values a field is required to have and values it must not have
+     */
+    private static final class Terms {
+        private final Set<Object> excluded = new HashSet<>();
+        private final List<Collection<Object>> required = new ArrayList<>();
+        private boolean exists;
+        private boolean missing;
+
+        /**
+         * A field can hold several values, so it can be equal to two different values at once. It can however never
+         * be equal to a value it must not be equal to.
+         */
+        private boolean isEmpty() {
+            if (exists && missing) {
+                return true;
+            }
+            if (!required.isEmpty() && missing) {
+                return true;
+            }
+            for (Collection<Object> values : required) {
+                if (excluded.containsAll(values)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class TermsCollector extends FilterVisitorAdapter<Void> {
+        private final Terms terms;
+
+        private TermsCollector(Terms terms) {
+            super(null);
+            this.terms = terms;
+        }
+
+        @Override
+        public Void visit(EqualsFilter filter) {
+            if (null != filter.getValue()) {
+                List<Object> values = new ArrayList<>(1);
+                values.add(filter.getValue());
+                terms.required.add(values);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(InFilter filter) {
+            if (!CollectionUtils.isNullOrEmpty(filter.getValues())) {
+                terms.required.add(filter.getValues());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(NotEqualsFilter filter) {
+            if (null != filter.getValue()) {
+                terms.excluded.add(filter.getValue());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(NotInFilter filter) {
+            if (null != filter.getValues()) {
+                terms.excluded.addAll(filter.getValues());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(ExistsFilter filter) {
+            terms.exists = true;
+            return null;
+        }
+
+        @Override
+        public Void visit(MissingFilter filter) {
+            terms.missing = true;
+            return null;
+        }
+    }
+}
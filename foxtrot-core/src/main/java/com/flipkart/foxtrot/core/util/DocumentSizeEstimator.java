@@ -0,0 +1,49 @@
+package com.flipkart.foxtrot.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.flipkart.foxtrot.common.Document;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/***
+ Rough serialized size of a document, good enough to bound batches and caches without serializing the document
+ ***/
+public class DocumentSizeEstimator {
+    private static final long DOCUMENT_OVERHEAD = 64L;
+
+    private DocumentSizeEstimator() {
+    }
+
+    public static long estimate(Document document) {
+        return DOCUMENT_OVERHEAD + (document.getId() == null ? 0 : document.getId()
+                .length()) + estimate(document.getData());
+    }
+
+    public static long estimate(JsonNode node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.isTextual()) {
+            return node.textValue()
+                    .length() + 2L;
+        }
+        if (node.isContainerNode()) {
+            long size = 2;
+            if (node.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    size += field.getKey()
+                            .length() + 4L + estimate(field.getValue());
+                }
+            } else {
+                for (JsonNode element : node) {
+                    size += 1 + estimate(element);
+                }
+            }
+            return size;
+        }
+        return 8;
+    }
+}
@@ -18,13 +18,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.foxtrot.common.ActionRequest;
 import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
 import com.flipkart.foxtrot.core.querystore.query.ElasticSearchQueryGenerator;
 import com.google.common.collect.ImmutableList;
-import lombok.val;
 import org.elasticsearch.index.query.QueryBuilder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /***
  Created by nitish.goyal on 26/07/18
@@ -36,6 +37,15 @@ public class ElasticsearchQueryUtils {
     private ElasticsearchQueryUtils() {
     }
 
+    /***
+     Explicitly asks for the shard request cache when queries are normalized. Shards of closed daily indices rewrite a
+     time range covering all of their documents to an unbounded one, so those shards keep hitting the cache as the
+     window moves. Null leaves the index default in place.
+     ***/
+    public static Boolean requestCache(QueryNormalizationConfig queryNormalizationConfig) {
+        return queryNormalizationConfig.isEnabled() ? Boolean.TRUE : null;
+    }
+
     public static Map<String, Object> toMap(ObjectMapper mapper,
                                             Object value) {
         return mapper.convertValue(value, new TypeReference<Map<String, Object>>() {
@@ -43,12 +53,34 @@ public class ElasticsearchQueryUtils {
     }
 
     public static QueryBuilder translateFilter(ActionRequest request, List<Filter> extraFilters) {
-        val filters = (null == extraFilters || extraFilters.isEmpty())
+        return new ElasticSearchQueryGenerator().genFilter(filters(request, extraFilters));
+    }
+
+    /***
+     Translates the filters of an aggregation request. When queries are normalized, relative time windows of the request
+     are widened to the configured granularity. Explicit bounds are kept as they are, and so is everything when the
+     query is restricted to a bucket range by temporal extra filters, a widened bucket range would read partially
+     filled buckets.
+     ***/
+    public static QueryBuilder translateAggregationFilter(ActionRequest request, List<Filter> extraFilters,
+                                                          QueryNormalizationConfig queryNormalizationConfig) {
+        final long temporalGranularityInMillis = queryNormalizationConfig.isEnabled() && !hasTemporalFilter(extraFilters)
+                ? TimeUnit.SECONDS.toMillis(queryNormalizationConfig.getTemporalGranularityInSeconds())
+                : 0;
+        return new ElasticSearchQueryGenerator(temporalGranularityInMillis).genFilter(filters(request, extraFilters));
+    }
+
+    private static List<Filter> filters(ActionRequest request, List<Filter> extraFilters) {
+        return (null == extraFilters || extraFilters.isEmpty())
                 ? request.getFilters()
                 : ImmutableList.<Filter>builder()
                 .addAll(request.getFilters())
                 .addAll(extraFilters)
                 .build();
-        return new ElasticSearchQueryGenerator().genFilter(filters);
+    }
+
+    private static boolean hasTemporalFilter(List<Filter> filters) {
+        return null != filters && filters.stream()
+                .anyMatch(Filter::isFilterTemporal);
     }
 }
@@ -1,5 +1,6 @@
 package com.flipkart.foxtrot.core.util;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
 import com.codahale.metrics.jmx.JmxReporter;
@@ -14,6 +15,9 @@ public class MetricUtil {
     private static final MetricUtil metricsHelper;
     private static final String PACKAGE_PREFIX = "com.flipkart.foxtrot.core";
     private static final String ACTION_METRIC_PREFIX = "action";
+    private static final String DOCUMENT_CACHE_METRIC_PREFIX = "documentcache";
+    private static final String QUERY_SCHEDULER_METRIC_PREFIX = "queryscheduler";
+    private static final String DATA_STORE_METRIC_PREFIX = "datastore";
     private static MetricRegistry metrics;
 
     static {
@@ -53,6 +57,21 @@ public class MetricUtil {
                 .mark();
     }
 
+    public void registerActionCacheTierHit(String opcode, String tier) {
+        registerActionCacheTierOperation(opcode, String.format("%s.hit", tier));
+    }
+
+    public void registerActionCacheTierMiss(String opcode) {
+        registerActionCacheTierOperation(opcode, "miss");
+    }
+
+    private void registerActionCacheTierOperation(String opcode, String status) {
+        metrics.meter(String.format("%s.%s.cache.tier.%s", PACKAGE_PREFIX, ACTION_METRIC_PREFIX, status))
+                .mark();
+        metrics.meter(String.format("%s.%s.%s.cache.tier.%s", PACKAGE_PREFIX, ACTION_METRIC_PREFIX, opcode, status))
+                .mark();
+    }
+
     public void registerActionSuccess(String opcode, String metricKey, long duration) {
         registerActionOperation(opcode, metricKey, "success", duration);
     }
@@ -69,6 +88,65 @@ public class MetricUtil {
         metrics.timer(String.format("%s.%s.%s.%s.%s", PACKAGE_PREFIX, ACTION_METRIC_PREFIX, opcode, metricKey, status))
                 .update(duration, TimeUnit.MILLISECONDS);
     }
+
+    public void registerActionCoalesced(String opcode) {
+        metrics.meter(String.format("%s.%s.coalesced", PACKAGE_PREFIX, ACTION_METRIC_PREFIX))
+                .mark();
+        metrics.meter(String.format("%s.%s.%s.coalesced", PACKAGE_PREFIX, ACTION_METRIC_PREFIX, opcode))
+                .mark();
+    }
+
+    public void registerActionStale(String opcode) {
+        metrics.meter(String.format("%s.%s.stale", PACKAGE_PREFIX, ACTION_METRIC_PREFIX))
+                .mark();
+        metrics.meter(String.format("%s.%s.%s.stale", PACKAGE_PREFIX, ACTION_METRIC_PREFIX, opcode))
+                .mark();
+    }
+
+    public void registerQueryRejected(String opcode) {
+        metrics.meter(String.format("%s.%s.rejected", PACKAGE_PREFIX, QUERY_SCHEDULER_METRIC_PREFIX))
+                .mark();
+        metrics.meter(String.format("%s.%s.%s.rejected", PACKAGE_PREFIX, QUERY_SCHEDULER_METRIC_PREFIX, opcode))
+                .mark();
+    }
+
+    /**
+     * Replaces any gauge registered earlier for the queue
+     */
+    public void registerQueryQueueDepth(String queue, Gauge<Integer> depth) {
+        final String name = String.format("%s.%s.%s.queueDepth", PACKAGE_PREFIX, QUERY_SCHEDULER_METRIC_PREFIX, queue);
+        metrics.remove(name);
+        metrics.register(name, depth);
+    }
+
+    public void registerDocumentCacheHit(String table) {
+        registerDocumentCacheOperation(table, "hit");
+    }
+
+    public void registerDocumentCacheMiss(String table) {
+        registerDocumentCacheOperation(table, "miss");
+    }
+
+    public void registerDocumentCacheEviction(String table) {
+        registerDocumentCacheOperation(table, "eviction");
+    }
+
+    private void registerDocumentCacheOperation(String table, String status) {
+        metrics.meter(String.format("%s.%s.%s", PACKAGE_PREFIX, DOCUMENT_CACHE_METRIC_PREFIX, status))
+                .mark();
+        metrics.meter(String.format("%s.%s.%s.%s", PACKAGE_PREFIX, DOCUMENT_CACHE_METRIC_PREFIX, table, status))
+                .mark();
+    }
+    /**
+     * Documents found in the query store that are not present in the data store
+     */
+    public void registerDocumentsMissing(String table, int count) {
+        metrics.meter(String.format("%s.%s.missing", PACKAGE_PREFIX, DATA_STORE_METRIC_PREFIX))
+                .mark(count);
+        metrics.meter(String.format("%s.%s.%s.missing", PACKAGE_PREFIX, DATA_STORE_METRIC_PREFIX, table))
+                .mark(count);
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 }
@@ -799,7 +799,8 @@ public class MockHTable implements Table {
 
     @Override
     public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
-        results = batch(actions);
+        Object[] batchResults = batch(actions);
+        System.arraycopy(batchResults, 0, results, 0, batchResults.length);
     }
 
     @Override
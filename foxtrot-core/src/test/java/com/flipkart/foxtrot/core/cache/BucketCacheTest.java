@@ -0,0 +1,69 @@
+package com.flipkart.foxtrot.core.cache;
+
+import com.flipkart.foxtrot.common.Period;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class BucketCacheTest {
+
+    private static final long HOUR = 3600_000L;
+
+    @Test
+    public void testClosedBucketsAreServedFromCache() {
+        BucketCacheConfig config = new BucketCacheConfig();
+        config.setEnabled(true);
+        BucketCache bucketCache = new BucketCache(config);
+        long firstHour = new DateTime().minusDays(1)
+                .hourOfDay()
+                .roundFloorCopy()
+                .getMillis();
+        Interval window = new Interval(firstHour + HOUR / 2, firstHour + 5 * HOUR + HOUR / 2);
+        List<Long[]> loads = new ArrayList<>();
+        BucketCache.BucketLoader<Long> loader = (from, to) -> {
+            loads.add(new Long[]{from, to});
+            NavigableMap<Long, Long> buckets = new TreeMap<>();
+            for (long bucket = firstHour; bucket <= firstHour + 5 * HOUR; bucket += HOUR) {
+                if ((null == from || bucket >= from) && (null == to || bucket < to)) {
+                    buckets.put(bucket, (long) loads.size());
+                }
+            }
+            return buckets;
+        };
+
+        NavigableMap<Long, Long> first = bucketCache.fetch("series", Period.hours, window, loader);
+        Assert.assertEquals(6, first.size());
+        Assert.assertEquals(1, loads.size());
+
+        NavigableMap<Long, Long> second = bucketCache.fetch("series", Period.hours, window, loader);
+        Assert.assertEquals(3, loads.size());
+        Assert.assertArrayEquals(new Long[]{null, firstHour + HOUR}, loads.get(1));
+        Assert.assertArrayEquals(new Long[]{firstHour + 5 * HOUR, null}, loads.get(2));
+        Assert.assertEquals(first.keySet(), second.keySet());
+        Assert.assertEquals(Long.valueOf(2), second.get(firstHour));
+        Assert.assertEquals(Long.valueOf(1), second.get(firstHour + 2 * HOUR));
+        Assert.assertEquals(Long.valueOf(3), second.get(firstHour + 5 * HOUR));
+    }
+
+    @Test
+    public void testDisabledCacheLoadsWholeWindow() {
+        BucketCache bucketCache = new BucketCache(new BucketCacheConfig());
+        Interval window = new Interval(new DateTime().minusDays(1), new DateTime());
+        List<Long[]> loads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            bucketCache.fetch("series", Period.hours, window, (from, to) -> {
+                loads.add(new Long[]{from, to});
+                return new TreeMap<Long, Long>();
+            });
+        }
+        Assert.assertEquals(2, loads.size());
+        Assert.assertArrayEquals(new Long[]{null, null}, loads.get(1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.flipkart.foxtrot.core.datastore.impl.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.common.Table;
+import com.flipkart.foxtrot.core.TestUtils;
+import com.flipkart.foxtrot.core.config.DocumentCacheConfig;
+import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.foxtrot.flipkart.translator.DocumentTranslator;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class CachedDataStoreTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Table table = Table.builder()
+            .name(TestUtils.TEST_TABLE_NAME)
+            .ttl(7)
+            .build();
+    private DataStore dataStore;
+    private CachedDataStore cachedDataStore;
+
+    @Before
+    public void setUp() {
+        dataStore = Mockito.mock(DataStore.class);
+        DocumentCacheConfig config = new DocumentCacheConfig();
+        config.setEnabled(true);
+        config.setPopulateOnWriteTables(Collections.singleton(TestUtils.TEST_TABLE_NAME));
+        cachedDataStore = new CachedDataStore(dataStore,
+                new DocumentTranslator(TestUtils.createTranslatorConfigWithRawKeyV1()), config);
+    }
+
+    @Test
+    public void testGetIsServedFromCacheAfterFirstRead() {
+        Document document = document("A");
+        doReturn(document).when(dataStore)
+                .get(table, "A");
+
+        Assert.assertSame(document, cachedDataStore.get(table, "A"));
+        Assert.assertSame(document, cachedDataStore.get(table, "A"));
+        verify(dataStore, times(1)).get(table, "A");
+    }
+
+    @Test
+    public void testGetAllFetchesOnlyMissesAndKeepsOrder() {
+        Document a = document("A");
+        Document b = document("B");
+        Document c = document("C");
+        doReturn(b).when(dataStore)
+                .get(table, "B");
+        cachedDataStore.get(table, "B");
+        doReturn(Lists.newArrayList(a, c)).when(dataStore)
+                .getAll(table, Lists.newArrayList("A", "C"));
+
+        List<Document> documents = cachedDataStore.getAll(table, Lists.newArrayList("A", "B", "C"));
+        Assert.assertEquals(Lists.newArrayList(a, b, c), documents);
+        verify(dataStore, times(1)).getAll(table, Lists.newArrayList("A", "C"));
+    }
+
+    @Test
+    public void testSavePopulatesCache() {
+        Document original = document("A");
+        Document translated = new DocumentTranslator(TestUtils.createTranslatorConfigWithRawKeyV1()).translate(table,
+                original);
+        doReturn(translated).when(dataStore)
+                .save(table, original);
+
+        cachedDataStore.save(table, original);
+        Document cached = cachedDataStore.get(table, "A");
+        Assert.assertEquals("A", cached.getId());
+        verify(dataStore, never()).get(any(Table.class), anyString());
+    }
+
+    private Document document(String id) {
+        return new Document(id, System.currentTimeMillis(), mapper.createObjectNode()
+                .put("key", id));
+    }
+}
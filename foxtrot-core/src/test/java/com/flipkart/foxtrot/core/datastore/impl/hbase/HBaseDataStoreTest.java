@@ -22,6 +22,8 @@ import com.flipkart.foxtrot.common.DocumentMetadata;
 import com.flipkart.foxtrot.common.Table;
 import com.flipkart.foxtrot.core.MockHTable;
 import com.flipkart.foxtrot.core.TestUtils;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
+import com.flipkart.foxtrot.core.datastore.SavedDocument;
 import com.flipkart.foxtrot.core.exception.BadRequestException;
 import com.flipkart.foxtrot.core.exception.ErrorCode;
 import com.flipkart.foxtrot.core.exception.FoxtrotException;
@@ -32,6 +34,8 @@ import com.google.common.collect.Maps;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Before;
 import org.junit.Test;
@@ -102,6 +106,25 @@ public class HBaseDataStoreTest {
                 .getRawStorageId(), expectedDocument);
     }
 
+    @Test
+    public void testSaveSerializedHandsBackWrittenJson() throws Exception {
+        Document document = createDummyDocument();
+        SavedDocument savedDocument = hbaseDataStore.saveSerialized(TEST_APP, document);
+        Result result = tableInterface.get(new Get(Bytes.toBytes(savedDocument.getDocument()
+                .getMetadata()
+                .getRawStorageId())));
+        assertArrayEquals(result.getValue(COLUMN_FAMILY, DATA_FIELD_NAME), savedDocument.getSerialized()
+                .getData());
+
+        HbaseConfig smileConfig = new HbaseConfig();
+        smileConfig.setPayloadFormat(HbasePayloadFormat.SMILE);
+        when(hbaseTableConnection.getHbaseConfig()).thenReturn(smileConfig);
+        hbaseDataStore = new HBaseDataStore(hbaseTableConnection, mapper,
+                new DocumentTranslator(TestUtils.createTranslatorConfigWithRawKeyV1()));
+        assertNull(hbaseDataStore.saveSerialized(TEST_APP, createDummyDocument())
+                .getSerialized());
+    }
+
     @Test
     public void testSaveSingleNullDocument() throws Exception {
         Document document = null;
@@ -330,6 +353,52 @@ public class HBaseDataStoreTest {
 
     }
 
+    @Test
+    public void testSmilePayloadReadAlongsideJsonRows() throws Exception {
+        DocumentTranslator translator = new DocumentTranslator(TestUtils.createTranslatorConfigWithRawKeyV2());
+        Document jsonDocument = createDummyDocument();
+        Document jsonTranslated = translator.translate(TEST_APP, jsonDocument);
+        tableInterface.put(new HBaseDataStore(hbaseTableConnection, mapper, translator).getPutForDocument(jsonTranslated));
+
+        HbaseConfig smileConfig = new HbaseConfig();
+        smileConfig.setPayloadFormat(HbasePayloadFormat.SMILE);
+        when(hbaseTableConnection.getHbaseConfig()).thenReturn(smileConfig);
+        hbaseDataStore = new HBaseDataStore(hbaseTableConnection, mapper, translator);
+        Document smileDocument = createDummyDocument();
+        Document smileTranslated = translator.translate(TEST_APP, smileDocument);
+        tableInterface.put(hbaseDataStore.getPutForDocument(smileTranslated));
+
+        compare(smileDocument, hbaseDataStore.get(TEST_APP, smileTranslated.getId()));
+        Map<String, Document> actual = Maps.newHashMap();
+        for (Document document : hbaseDataStore.getAll(TEST_APP, Lists.newArrayList(jsonTranslated.getId(),
+                smileTranslated.getId()))) {
+            actual.put(document.getId(), document);
+        }
+        compare(jsonDocument, actual.get(jsonDocument.getId()));
+        compare(smileDocument, actual.get(smileDocument.getId()));
+    }
+
+    @Test
+    public void testResolveIdsFromIdIndex() throws Exception {
+        DocumentTranslator translator = new DocumentTranslator(TestUtils.createTranslatorConfigWithRawKeyV2());
+        assertTrue(new HBaseDataStore(hbaseTableConnection, mapper, translator).resolveIds(TEST_APP,
+                Collections.singletonList("missing"))
+                .isEmpty());
+
+        HbaseConfig indexConfig = new HbaseConfig();
+        indexConfig.setIdIndexEnabled(true);
+        when(hbaseTableConnection.getHbaseConfig()).thenReturn(indexConfig);
+        hbaseDataStore = new HBaseDataStore(hbaseTableConnection, mapper, translator);
+        Document document = createDummyDocument();
+        Document translated = hbaseDataStore.save(TEST_APP, document);
+
+        Map<String, String> resolvedIds = hbaseDataStore.resolveIds(TEST_APP, Lists.newArrayList(document.getId(),
+                "missing"));
+        assertEquals(1, resolvedIds.size());
+        assertEquals(translated.getId(), resolvedIds.get(document.getId()));
+        compare(document, hbaseDataStore.get(TEST_APP, resolvedIds.get(document.getId())));
+    }
+
     @Test
     public void testGetSingleMissingDocument() {
         try {
@@ -477,7 +546,7 @@ public class HBaseDataStoreTest {
         }
         tableInterface.put(putList);
         doThrow(new IOException()).when(tableInterface)
-                .get(Matchers.anyListOf(Get.class));
+                .batch(Matchers.anyListOf(Row.class), any(Object[].class));
         try {
             hbaseDataStore.getAll(TEST_APP, ids);
             fail();
@@ -486,6 +555,89 @@ public class HBaseDataStoreTest {
         }
     }
 
+    @Test
+    public void testGetBulkAbsentRowsReportedMissing() throws Exception {
+        List<String> ids = new ArrayList<>();
+        List<Put> putList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String id = UUID.randomUUID()
+                    .toString();
+            long timestamp = System.currentTimeMillis();
+            String rawId = v1FormatKey(id);
+            ids.add(id);
+            if (1 != i) {
+                putList.add(hbaseDataStore.getPutForDocument(new Document(rawId, timestamp,
+                        new DocumentMetadata(id, rawId, timestamp),
+                        mapper.valueToTree(Collections.singletonMap("TEST_NAME", "BULK_GET_TEST")))));
+            }
+        }
+        tableInterface.put(putList);
+
+        MultiGetResult result = hbaseDataStore.getAllAvailable(TEST_APP, ids);
+        assertEquals(2, result.getDocuments()
+                .size());
+        assertEquals(Collections.singletonList(ids.get(1)), result.getMissingIds());
+        try {
+            hbaseDataStore.getAll(TEST_APP, ids);
+            fail();
+        } catch (FoxtrotException ex) {
+            assertEquals(ErrorCode.DOCUMENT_NOT_FOUND, ex.getCode());
+        }
+    }
+
+    @Test
+    public void testGetBulkFailedGetIsNotReportedMissing() throws Exception {
+        List<String> ids = new ArrayList<>();
+        List<Put> putList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String id = UUID.randomUUID()
+                    .toString();
+            long timestamp = System.currentTimeMillis();
+            String rawId = v1FormatKey(id);
+            ids.add(id);
+            putList.add(hbaseDataStore.getPutForDocument(new Document(rawId, timestamp,
+                    new DocumentMetadata(id, rawId, timestamp),
+                    mapper.valueToTree(Collections.singletonMap("TEST_NAME", "BULK_GET_TEST")))));
+        }
+        tableInterface.put(putList);
+        failGet(1);
+
+        try {
+            hbaseDataStore.getAllAvailable(TEST_APP, ids);
+            fail();
+        } catch (FoxtrotException ex) {
+            assertEquals(ErrorCode.STORE_CONNECTION_ERROR, ex.getCode());
+        }
+    }
+
+    @Test
+    public void testGetBulkAllGetsFailed() throws Exception {
+        failGet(0);
+        try {
+            hbaseDataStore.getAllAvailable(TEST_APP, Collections.singletonList(UUID.randomUUID()
+                    .toString()));
+            fail();
+        } catch (FoxtrotException ex) {
+            assertEquals(ErrorCode.STORE_CONNECTION_ERROR, ex.getCode());
+        }
+    }
+
+    /**
+     * Fails the get at the given position of a batch the way the client reports exhausted retries
+     */
+    private void failGet(int position) throws Exception {
+        doAnswer(invocation -> {
+            List<Row> actions = invocation.getArgument(0);
+            Object[] results = invocation.getArgument(1);
+            System.arraycopy(tableInterface.batch(actions), 0, results, 0, actions.size());
+            IOException failure = new IOException("Region server down");
+            results[position] = failure;
+            throw new RetriesExhaustedWithDetailsException(Collections.singletonList(failure),
+                    Collections.singletonList(actions.get(position)), Collections.singletonList("rs:16020"));
+        }).when(tableInterface)
+                .batch(Matchers.anyListOf(Row.class), any(Object[].class));
+    }
+
     @Test(expected = BadRequestException.class)
     public void testGetBulkHBaseCloseException() throws Exception {
         List<String> ids = new Vector<>();
@@ -0,0 +1,72 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+public class QueryCoalescerTest {
+
+    @Test
+    public void testConcurrentIdenticalQueriesExecuteOnce() throws Exception {
+        QueryCoalescer coalescer = new QueryCoalescer(new QueryCoalescingConfig(), null);
+        ActionResponse response = mock(ActionResponse.class);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<ActionResponse> leader = executorService.submit(() -> coalescer.execute("group", "key", null, () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return response;
+            }));
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<ActionResponse> follower = executorService.submit(() -> coalescer.execute("group", "key", null,
+                    () -> {
+                        executions.incrementAndGet();
+                        return mock(ActionResponse.class);
+                    }));
+            Thread.sleep(500);
+            release.countDown();
+
+            Assert.assertSame(response, leader.get(10, TimeUnit.SECONDS));
+            Assert.assertSame(response, follower.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, executions.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueriesAfterCompletionExecuteAgain() {
+        QueryCoalescer coalescer = new QueryCoalescer(new QueryCoalescingConfig(), null);
+        AtomicInteger executions = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            coalescer.execute("group", "key", null, () -> {
+                executions.incrementAndGet();
+                return mock(ActionResponse.class);
+            });
+        }
+        Assert.assertEquals(2, executions.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+}
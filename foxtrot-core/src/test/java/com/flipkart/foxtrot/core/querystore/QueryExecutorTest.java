@@ -16,13 +16,22 @@
 package com.flipkart.foxtrot.core.querystore;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.count.CountResponse;
+import com.flipkart.foxtrot.common.query.general.EqualsFilter;
 import com.flipkart.foxtrot.core.TestUtils;
+import com.flipkart.foxtrot.core.cache.BucketCache;
 import com.flipkart.foxtrot.core.cache.CacheManager;
 import com.flipkart.foxtrot.core.cache.impl.DistributedCacheFactory;
 import com.flipkart.foxtrot.core.common.RequestWithNoAction;
 import com.flipkart.foxtrot.core.common.noncacheable.NonCacheableAction;
 import com.flipkart.foxtrot.core.common.noncacheable.NonCacheableActionRequest;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
 import com.flipkart.foxtrot.core.datastore.DataStore;
 import com.flipkart.foxtrot.core.exception.ErrorCode;
 import com.flipkart.foxtrot.core.exception.FoxtrotException;
@@ -35,15 +44,22 @@ import com.flipkart.foxtrot.core.table.TableMetadataManager;
 import com.flipkart.foxtrot.core.table.impl.ElasticsearchTestUtils;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
 import org.junit.*;
 import org.mockito.Mockito;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -56,6 +72,8 @@ public class QueryExecutorTest {
     private QueryExecutor queryExecutor;
     private ObjectMapper mapper = new ObjectMapper();
     private AnalyticsLoader analyticsLoader;
+    private final List<String> observerThreads = new CopyOnWriteArrayList<>();
+    private ExecutorService executorService;
 
     @BeforeClass
     public static void setupClass() throws Exception {
@@ -83,12 +101,22 @@ public class QueryExecutorTest {
         when(tableMetadataManager.exists(anyString())).thenReturn(true);
         when(tableMetadataManager.get(anyString())).thenReturn(TestUtils.TEST_TABLE);
         QueryStore queryStore = mock(QueryStore.class);
+        executorService = Executors.newFixedThreadPool(1, new ThreadFactoryBuilder()
+                .setNameFormat("query-executor-%d")
+                .build());
         analyticsLoader = spy(
                 new AnalyticsLoader(tableMetadataManager, dataStore, queryStore, elasticsearchConnection, cacheManager,
-                        mapper, new ElasticsearchTuningConfig()));
+                        mapper, new ElasticsearchTuningConfig(), new BucketCache(new BucketCacheConfig()),
+                        new QueryScheduler(new QuerySchedulerConfig()), executorService));
         TestUtils.registerActions(analyticsLoader, mapper);
-        ExecutorService executorService = Executors.newFixedThreadPool(1);
-        queryExecutor = new QueryExecutor(analyticsLoader, executorService, Collections.emptyList());
+        queryExecutor = new QueryExecutor(analyticsLoader, executorService,
+                Collections.singletonList(new ActionExecutionObserver() {
+                    @Override
+                    public void postExecution(ActionEvaluationResponse response) {
+                        observerThreads.add(Thread.currentThread()
+                                .getName());
+                    }
+                }));
     }
 
     @After
@@ -110,4 +138,133 @@ public class QueryExecutorTest {
             assertEquals(ErrorCode.UNRESOLVABLE_OPERATION, e.getCode());
         }
     }
+
+    @Test
+    public void testExecuteNonBlockingNonExistentAction() throws Exception {
+        try {
+            queryExecutor.executeNonBlocking(new RequestWithNoAction())
+                    .get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(ErrorCode.UNRESOLVABLE_OPERATION, ((FoxtrotException) e.getCause()).getCode());
+        }
+    }
+
+    @Test
+    public void testExecuteNonBlockingCompletesOnExecutor() throws Exception {
+        TestUtils.ensureIndex(elasticsearchConnection,
+                ElasticsearchUtils.getCurrentIndex(TestUtils.TEST_TABLE_NAME, System.currentTimeMillis()));
+        CountRequest countRequest = new CountRequest();
+        countRequest.setTable(TestUtils.TEST_TABLE_NAME);
+        countRequest.setField("os");
+        countRequest.setDistinct(true);
+
+        ActionResponse response = queryExecutor.executeNonBlocking(countRequest)
+                .get();
+        assertEquals(0, ((CountResponse) response).getCount());
+        assertEquals(1, observerThreads.size());
+        assertTrue(observerThreads.get(0)
+                .startsWith("query-executor-"));
+    }
+
+    @Test
+    public void testExecutorRejectionRejectsQuery() throws Exception {
+        ExecutorService rejectingExecutor = Executors.newSingleThreadExecutor();
+        rejectingExecutor.shutdown();
+        QueryExecutor rejectingQueryExecutor = new QueryExecutor(analyticsLoader, rejectingExecutor,
+                Collections.singletonList(new ActionExecutionObserver() {
+                    @Override
+                    public void postExecution(ActionEvaluationResponse response) {
+                        observerThreads.add(Thread.currentThread()
+                                .getName());
+                    }
+                }));
+        try {
+            rejectingQueryExecutor.executeAsync(new NonCacheableActionRequest());
+            fail();
+        } catch (FoxtrotException e) {
+            assertEquals(ErrorCode.QUERY_REJECTED, e.getCode());
+        }
+        try {
+            rejectingQueryExecutor.executeNonBlocking(new NonCacheableActionRequest())
+                    .get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(ErrorCode.QUERY_REJECTED, ((FoxtrotException) e.getCause()).getCode());
+        }
+        // Failure is still reported to the observers
+        assertEquals(1, observerThreads.size());
+    }
+
+    @Test
+    public void testStaleResponseIsServedAsCopy() throws Exception {
+        TestUtils.ensureIndex(elasticsearchConnection,
+                ElasticsearchUtils.getCurrentIndex(TestUtils.TEST_TABLE_NAME, System.currentTimeMillis()));
+        QueryExecutor refreshingExecutor = refreshingExecutor();
+        final String marker = UUID.randomUUID()
+                .toString();
+
+        ActionResponse fresh = refreshingExecutor.execute(countRequest(marker));
+        Assert.assertFalse(fresh.isStale());
+
+        CountRequest request = countRequest(marker);
+        ActionResponse stale = refreshingExecutor.execute(request);
+        Assert.assertTrue(stale.isStale());
+        Assert.assertNotSame(fresh, stale);
+        Assert.assertFalse(fresh.isStale());
+        Assert.assertFalse(fresh.isFromCache());
+
+        // The refresh runs on the single executor thread, the caller's request is left as it was sent
+        executorService.submit(() -> {
+        })
+                .get();
+        assertEquals(1, request.getFilters()
+                .size());
+    }
+
+    @Test
+    public void testRefreshedResponseIsServedToNextRequest() throws Exception {
+        TestUtils.ensureIndex(elasticsearchConnection,
+                ElasticsearchUtils.getCurrentIndex(TestUtils.TEST_TABLE_NAME, System.currentTimeMillis()));
+        QueryExecutor refreshingExecutor = refreshingExecutor();
+        final String marker = UUID.randomUUID()
+                .toString();
+
+        Assert.assertFalse(refreshingExecutor.execute(countRequest(marker))
+                                   .isFromCache());
+        Assert.assertTrue(refreshingExecutor.execute(countRequest(marker))
+                                  .isStale());
+        executorService.submit(() -> {
+        })
+                .get();
+
+        // The refresh cached its response under the key of the unprocessed request, so it is a plain cache hit now
+        ActionResponse refreshed = refreshingExecutor.execute(countRequest(marker));
+        Assert.assertTrue(refreshed.isFromCache());
+        Assert.assertFalse(refreshed.isStale());
+    }
+
+    private QueryExecutor refreshingExecutor() {
+        RefreshAheadConfig refreshAheadConfig = new RefreshAheadConfig();
+        refreshAheadConfig.setEnabled(true);
+        refreshAheadConfig.setHotAccessThreshold(1);
+        refreshAheadConfig.setRefreshAfterSeconds(0);
+        return new QueryExecutor(analyticsLoader, executorService, Collections.emptyList(),
+                new QueryCoalescer(new QueryCoalescingConfig(), null), new QueryRefresher(refreshAheadConfig));
+    }
+
+    private CountRequest countRequest() {
+        CountRequest countRequest = new CountRequest();
+        countRequest.setTable(TestUtils.TEST_TABLE_NAME);
+        return countRequest;
+    }
+
+    /**
+     * Count request unique to one test, so cache entries from other tests on the shared hazelcast are not read
+     */
+    private CountRequest countRequest(String marker) {
+        CountRequest countRequest = countRequest();
+        countRequest.setFilters(Lists.newArrayList(new EqualsFilter("marker", marker)));
+        return countRequest;
+    }
 }
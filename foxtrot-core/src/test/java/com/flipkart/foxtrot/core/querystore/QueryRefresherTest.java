@@ -0,0 +1,47 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class QueryRefresherTest {
+
+    @Test
+    public void testOnlyHotQueriesAreRefreshed() {
+        RefreshAheadConfig config = new RefreshAheadConfig();
+        config.setEnabled(true);
+        config.setHotAccessThreshold(3);
+        QueryRefresher refresher = new QueryRefresher(config);
+
+        QueryRefresher.TrackedQuery query = null;
+        for (int i = 0; i < 2; i++) {
+            query = refresher.track("key");
+        }
+        Assert.assertFalse(refresher.isHot(query));
+        Assert.assertFalse(refresher.startRefresh(query));
+
+        query = refresher.track("key");
+        Assert.assertTrue(refresher.isHot(query));
+        Assert.assertTrue(refresher.startRefresh(query));
+        Assert.assertFalse(refresher.startRefresh(query));
+
+        ActionResponse response = mock(ActionResponse.class);
+        refresher.refreshed(query, response);
+        Assert.assertSame(response, refresher.getStale(query));
+        // Refreshed just now, so not due again yet
+        Assert.assertFalse(refresher.startRefresh(query));
+    }
+
+    @Test
+    public void testColdQueriesAreNotServedStale() {
+        RefreshAheadConfig config = new RefreshAheadConfig();
+        config.setEnabled(true);
+        QueryRefresher refresher = new QueryRefresher(config);
+        QueryRefresher.TrackedQuery query = refresher.track("key");
+        refresher.update(query, mock(ActionResponse.class));
+        Assert.assertNull(refresher.getStale(query));
+    }
+}
@@ -0,0 +1,150 @@
+package com.flipkart.foxtrot.core.querystore;
+
+import com.flipkart.foxtrot.common.Opcodes;
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.group.GroupRequest;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
+import com.flipkart.foxtrot.core.exception.ErrorCode;
+import com.flipkart.foxtrot.core.exception.FoxtrotException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+
+public class QuerySchedulerTest {
+
+    @Test
+    public void testQueriesOverTableLimitAreRejected() {
+        QuerySchedulerConfig config = new QuerySchedulerConfig();
+        config.setEnabled(true);
+        config.setMaxConcurrentQueriesPerTable(1);
+        config.setMaxQueueTimeInMillis(10);
+        QueryScheduler scheduler = new QueryScheduler(config);
+
+        try (QueryScheduler.Permit ignored = scheduler.admit(countRequest("table1"), 0)) {
+            try {
+                scheduler.admit(countRequest("table1"), 0);
+                Assert.fail("Query over the table limit was admitted");
+            } catch (FoxtrotException e) {
+                Assert.assertEquals(ErrorCode.QUERY_REJECTED, e.getCode());
+            }
+            scheduler.admit(countRequest("table2"), 0)
+                    .close();
+        }
+        scheduler.admit(countRequest("table1"), 0)
+                .close();
+    }
+
+    @Test
+    public void testExpensiveQueriesTakeMorePermits() {
+        QuerySchedulerConfig config = new QuerySchedulerConfig();
+        config.setEnabled(true);
+        config.setMaxConcurrentQueries(4);
+        config.setExpensiveQueryWeight(4);
+        config.setExpensiveCardinalityThreshold(100);
+        config.setMaxQueueTimeInMillis(10);
+        QueryScheduler scheduler = new QueryScheduler(config);
+        GroupRequest groupRequest = new GroupRequest();
+        groupRequest.setTable("table1");
+        groupRequest.setNesting(Collections.singletonList("os"));
+
+        try (QueryScheduler.Permit ignored = scheduler.admit(groupRequest, 1000)) {
+            try {
+                scheduler.admit(countRequest("table2"), 0);
+                Assert.fail("Query was admitted while an expensive query held all permits");
+            } catch (FoxtrotException e) {
+                Assert.assertEquals(ErrorCode.QUERY_REJECTED, e.getCode());
+            }
+        }
+        scheduler.admit(countRequest("table2"), 0)
+                .close();
+    }
+
+    @Test
+    public void testQueriesWaitingOnTablePermitsFillTheQueue() throws Exception {
+        QuerySchedulerConfig config = new QuerySchedulerConfig();
+        config.setEnabled(true);
+        config.setMaxConcurrentQueriesPerTable(1);
+        config.setMaxQueueLength(1);
+        config.setMaxQueueTimeInMillis(5_000);
+        QueryScheduler scheduler = new QueryScheduler(config);
+
+        CompletableFuture<QueryScheduler.Permit> waiting;
+        try (QueryScheduler.Permit ignored = scheduler.admit(countRequest("table1"), 0)) {
+            waiting = CompletableFuture.supplyAsync(() -> scheduler.admit(countRequest("table1"), 0));
+            await().atMost(5, TimeUnit.SECONDS)
+                    .until(() -> scheduler.getWaitingQueries() == 1);
+            long start = System.currentTimeMillis();
+            try {
+                scheduler.admit(countRequest("table1"), 0);
+                Assert.fail("Query was admitted to a full queue");
+            } catch (FoxtrotException e) {
+                Assert.assertEquals(ErrorCode.QUERY_REJECTED, e.getCode());
+            }
+            Assert.assertTrue(System.currentTimeMillis() - start < config.getMaxQueueTimeInMillis());
+        }
+        waiting.get(5, TimeUnit.SECONDS)
+                .close();
+        Assert.assertEquals(0, scheduler.getWaitingQueries());
+    }
+
+    @Test
+    public void testAsyncAdmissionWaitsWithoutBlocking() throws Exception {
+        QuerySchedulerConfig config = new QuerySchedulerConfig();
+        config.setEnabled(true);
+        config.setMaxConcurrentQueriesPerTable(1);
+        config.setMaxQueueTimeInMillis(5_000);
+        QueryScheduler scheduler = new QueryScheduler(config);
+
+        CompletableFuture<QueryScheduler.Permit> waiting;
+        try (QueryScheduler.Permit ignored = scheduler.admitAsync(countRequest("table1"), 0)
+                .get()) {
+            waiting = scheduler.admitAsync(countRequest("table1"), 0);
+            Assert.assertFalse(waiting.isDone());
+            Assert.assertEquals(1, scheduler.getWaitingQueries());
+        }
+        waiting.get(5, TimeUnit.SECONDS)
+                .close();
+        Assert.assertEquals(0, scheduler.getWaitingQueries());
+
+        config.setMaxQueueTimeInMillis(10);
+        try (QueryScheduler.Permit ignored = scheduler.admit(countRequest("table1"), 0)) {
+            try {
+                scheduler.admitAsync(countRequest("table1"), 0)
+                        .get(5, TimeUnit.SECONDS);
+                Assert.fail("Query over the table limit was admitted");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(ErrorCode.QUERY_REJECTED, ((FoxtrotException) e.getCause()).getCode());
+            }
+        }
+        Assert.assertEquals(0, scheduler.getWaitingQueries());
+    }
+
+    @Test
+    public void testZeroOpcodeLimitAdmitsNothing() {
+        QuerySchedulerConfig config = new QuerySchedulerConfig();
+        config.setEnabled(true);
+        config.setMaxConcurrentQueriesPerOpcode(Collections.singletonMap(Opcodes.COUNT, 0));
+        config.setMaxQueueTimeInMillis(10);
+        QueryScheduler scheduler = new QueryScheduler(config);
+
+        try {
+            scheduler.admit(countRequest("table1"), 0);
+            Assert.fail("Query was admitted for an opcode with no permits");
+        } catch (FoxtrotException e) {
+            Assert.assertEquals(ErrorCode.QUERY_REJECTED, e.getCode());
+        }
+        Assert.assertEquals(0, scheduler.getWaitingQueries());
+    }
+
+    private static CountRequest countRequest(String table) {
+        CountRequest request = new CountRequest();
+        request.setTable(table);
+        return request;
+    }
+}
@@ -6,17 +6,26 @@ import com.flipkart.foxtrot.common.count.CountResponse;
 import com.flipkart.foxtrot.common.query.Filter;
 import com.flipkart.foxtrot.common.query.general.EqualsFilter;
 import com.flipkart.foxtrot.core.TestUtils;
+import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
 import com.flipkart.foxtrot.core.exception.FoxtrotException;
+import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
 import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class CountActionTest extends ActionTest {
 
@@ -41,6 +50,29 @@ public class CountActionTest extends ActionTest {
         assertEquals(11, countResponse.getCount());
     }
 
+    @Test
+    public void testCountSearchesFetchNoHits() {
+        AnalyticsLoader analyticsLoader = mock(AnalyticsLoader.class);
+        when(analyticsLoader.getElasticsearchTuningConfig()).thenReturn(new ElasticsearchTuningConfig());
+        when(analyticsLoader.getQueryNormalizationConfig()).thenReturn(new QueryNormalizationConfig());
+        CountRequest countRequest = new CountRequest();
+        countRequest.setTable(TestUtils.TEST_TABLE_NAME);
+        countRequest.setField("os");
+        countRequest.setDistinct(true);
+        CountAction countAction = new CountAction(countRequest, analyticsLoader);
+
+        SearchSourceBuilder distinctSource = countAction.getRequestBuilder(countRequest, Collections.emptyList())
+                .source();
+        assertEquals(0, distinctSource.size());
+        assertFalse(distinctSource.trackTotalHits());
+
+        countRequest.setDistinct(false);
+        SearchSourceBuilder countSource = countAction.getRequestBuilder(countRequest, Collections.emptyList())
+                .source();
+        assertEquals(0, countSource.size());
+        assertTrue(countSource.trackTotalHits());
+    }
+
     @Test
     public void testCountWithFilter() throws FoxtrotException {
         CountRequest countRequest = new CountRequest();
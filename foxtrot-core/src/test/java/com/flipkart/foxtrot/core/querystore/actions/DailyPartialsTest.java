@@ -0,0 +1,168 @@
+package com.flipkart.foxtrot.core.querystore.actions;
+
+import com.flipkart.foxtrot.common.ActionRequest;
+import com.flipkart.foxtrot.common.ActionResponse;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.count.CountResponse;
+import com.flipkart.foxtrot.common.group.GroupRequest;
+import com.flipkart.foxtrot.common.group.GroupResponse;
+import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.common.query.numeric.BetweenFilter;
+import com.flipkart.foxtrot.core.TestUtils;
+import com.flipkart.foxtrot.core.cache.BucketCache;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
+import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.querystore.actions.spi.AnalyticsLoader;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Results served from daily partials have to match the ones of a single search over the whole window
+ */
+public class DailyPartialsTest extends ActionTest {
+
+    // The count documents span 16th to 28th April 2014
+    private static final long WINDOW_START = 1397586600000L;
+    private static final long WINDOW_END = 1398796200000L;
+    // 16th to 21st April, one os per day
+    private static final long SHORT_WINDOW_END = 1398018600000L;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        List<Document> documents = TestUtils.getCountDocuments(getMapper());
+        getQueryStore().save(TestUtils.TEST_TABLE_NAME, documents);
+        getElasticsearchConnection().getClient()
+                .indices()
+                .refresh(new RefreshRequest("*"), RequestOptions.DEFAULT);
+    }
+
+    @Test
+    public void testGroupByDayMatchesWholeWindow() throws Exception {
+        BucketCache bucketCache = bucketCache();
+        AnalyticsLoader splitLoader = analyticsLoader(bucketCache, new ElasticsearchTuningConfig());
+        AnalyticsLoader wholeWindowLoader = analyticsLoader(null, new ElasticsearchTuningConfig());
+
+        Map<String, Object> expected = group(wholeWindowLoader, false, WINDOW_END, "os", "device");
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, group(splitLoader, false, WINDOW_END, "os", "device"));
+        // Served from the cached partials the second time
+        assertEquals(expected, group(splitLoader, false, WINDOW_END, "os", "device"));
+        assertEquals(expected, group(splitLoader, true, WINDOW_END, "os", "device"));
+        verify(bucketCache, times(3)).fetch(anyString(), any(), any(), any());
+        verify(bucketCache, never()).exclude(anyString());
+    }
+
+    @Test
+    public void testTruncatedGroupFallsBackToWholeWindow() throws Exception {
+        ElasticsearchTuningConfig tuningConfig = new ElasticsearchTuningConfig();
+        tuningConfig.setAggregationSize(1);
+        BucketCache bucketCache = bucketCache();
+        AnalyticsLoader splitLoader = analyticsLoader(bucketCache, tuningConfig);
+        AnalyticsLoader wholeWindowLoader = analyticsLoader(null, tuningConfig);
+
+        // The last day has documents of both os, more than the aggregation returns
+        Map<String, Object> expected = group(wholeWindowLoader, false, WINDOW_END, "os", "device");
+        assertEquals(expected, group(splitLoader, false, WINDOW_END, "os", "device"));
+        assertEquals(expected, group(splitLoader, false, WINDOW_END, "os", "device"));
+        // Series found truncated are not split again
+        verify(bucketCache, atMost(1)).fetch(anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void testGroupOverAggregationSizeFallsBackToWholeWindow() throws Exception {
+        ElasticsearchTuningConfig tuningConfig = new ElasticsearchTuningConfig();
+        tuningConfig.setAggregationSize(1);
+        BucketCache bucketCache = bucketCache();
+        AnalyticsLoader splitLoader = analyticsLoader(bucketCache, tuningConfig);
+        AnalyticsLoader wholeWindowLoader = analyticsLoader(null, tuningConfig);
+
+        // Every day fits in the aggregation, the days together do not
+        Map<String, Object> expected = group(wholeWindowLoader, false, SHORT_WINDOW_END, "os");
+        assertEquals(1, expected.size());
+        assertEquals(expected, group(splitLoader, false, SHORT_WINDOW_END, "os"));
+        assertEquals(expected, group(splitLoader, false, SHORT_WINDOW_END, "os"));
+        verify(bucketCache, atMost(1)).fetch(anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void testCountByDayMatchesWholeWindow() throws Exception {
+        BucketCache bucketCache = bucketCache();
+        AnalyticsLoader splitLoader = analyticsLoader(bucketCache, new ElasticsearchTuningConfig());
+        AnalyticsLoader wholeWindowLoader = analyticsLoader(null, new ElasticsearchTuningConfig());
+
+        long expected = count(wholeWindowLoader, false);
+        assertEquals(11, expected);
+        assertEquals(expected, count(splitLoader, false));
+        assertEquals(expected, count(splitLoader, true));
+        assertEquals(expected, count(wholeWindowLoader, true));
+        verify(bucketCache, times(2)).fetch(anyString(), any(), any(), any());
+    }
+
+    private static BucketCache bucketCache() {
+        BucketCacheConfig config = new BucketCacheConfig();
+        config.setEnabled(true);
+        return spy(new BucketCache(config));
+    }
+
+    /**
+     * @param bucketCache null for a loader that always searches the whole window
+     */
+    private static AnalyticsLoader analyticsLoader(BucketCache bucketCache,
+                                                   ElasticsearchTuningConfig tuningConfig) throws Exception {
+        AnalyticsLoader analyticsLoader = new AnalyticsLoader(getTableMetadataManager(), null, getQueryStore(),
+                getElasticsearchConnection(), getCacheManager(), getMapper(), tuningConfig,
+                null == bucketCache ? new BucketCache(new BucketCacheConfig()) : bucketCache);
+        TestUtils.registerActions(analyticsLoader, getMapper());
+        return analyticsLoader;
+    }
+
+    private static Map<String, Object> group(AnalyticsLoader analyticsLoader, boolean async, long windowEnd,
+                                             String... nesting) throws Exception {
+        GroupRequest groupRequest = new GroupRequest();
+        groupRequest.setTable(TestUtils.TEST_TABLE_NAME);
+        groupRequest.setNesting(Arrays.asList(nesting));
+        groupRequest.setFilters(window(windowEnd));
+        return ((GroupResponse) execute(analyticsLoader, groupRequest, async)).getResult();
+    }
+
+    private static long count(AnalyticsLoader analyticsLoader, boolean async) throws Exception {
+        CountRequest countRequest = new CountRequest();
+        countRequest.setTable(TestUtils.TEST_TABLE_NAME);
+        countRequest.setFilters(window(WINDOW_END));
+        return ((CountResponse) execute(analyticsLoader, countRequest, async)).getCount();
+    }
+
+    private static <T extends ActionRequest> ActionResponse execute(AnalyticsLoader analyticsLoader, T request,
+                                                                   boolean async) throws Exception {
+        Action<T> action = analyticsLoader.getAction(request);
+        return async
+               ? action.executeAsync()
+                       .get()
+               : action.execute();
+    }
+
+    private static List<Filter> window(long windowEnd) {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(new BetweenFilter("_timestamp", WINDOW_START, windowEnd, true));
+        return filters;
+    }
+}
@@ -0,0 +1,26 @@
+package com.flipkart.foxtrot.core.querystore.actions.spi;
+
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.distinct.DistinctRequest;
+import com.flipkart.foxtrot.core.common.Action;
+import com.flipkart.foxtrot.core.querystore.actions.CountAction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class ActionMetadataTest {
+
+    @Test
+    public void testNewActionUsesRegisteredConstructor() throws Exception {
+        ActionMetadata metadata = new ActionMetadata(CountRequest.class, CountAction.class, true);
+        Action action = metadata.newAction(new CountRequest(), mock(AnalyticsLoader.class));
+        Assert.assertTrue(action instanceof CountAction);
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void testNewActionWithoutMatchingConstructorFails() throws Exception {
+        ActionMetadata metadata = new ActionMetadata(DistinctRequest.class, CountAction.class, true);
+        metadata.newAction(new DistinctRequest(), mock(AnalyticsLoader.class));
+    }
+}
@@ -21,6 +21,7 @@ import com.flipkart.foxtrot.common.ActionResponse;
 import com.flipkart.foxtrot.common.group.GroupResponse;
 import com.flipkart.foxtrot.core.TestUtils;
 import com.flipkart.foxtrot.core.cache.CacheManager;
+import com.flipkart.foxtrot.core.cache.impl.ActionResponseCodec;
 import com.flipkart.foxtrot.core.cache.impl.DistributedCache;
 import com.flipkart.foxtrot.core.cache.impl.DistributedCacheFactory;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
@@ -36,7 +37,10 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import static com.flipkart.foxtrot.core.querystore.actions.Constants.CACHE_NAME_PREFIX;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -88,9 +92,9 @@ public class DistributedCacheTest {
     @Test
     public void testPutCacheException() throws Exception {
         doThrow(new JsonGenerationException("TEST_EXCEPTION")).when(mapper)
-                .writeValueAsString(any());
+                .writeValueAsBytes(any());
         ActionResponse returnResponse = distributedCache.put("DUMMY_KEY_PUT", null);
-        verify(mapper, times(1)).writeValueAsString(any());
+        verify(mapper, times(1)).writeValueAsBytes(any());
         assertNull(returnResponse);
         assertNull(hazelcastInstance.getMap("TEST")
                 .get("DUMMY_KEY_PUT"));
@@ -129,4 +133,93 @@ public class DistributedCacheTest {
         response = distributedCache.has(null);
         assertFalse(response);
     }
+
+    @Test
+    public void testPutLargeResponseIsStoredCompressed() throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            result.put("key-" + i, "value-" + i);
+        }
+        GroupResponse expectedResponse = new GroupResponse(result);
+        distributedCache.put("DUMMY_KEY_LARGE", expectedResponse);
+
+        Object stored = hazelcastInstance.getMap(CACHE_NAME_PREFIX + "TEST")
+                .get("DUMMY_KEY_LARGE");
+        assertTrue(stored instanceof byte[]);
+        assertEquals(ActionResponseCodec.FORMAT_DEFLATED_JSON, ((byte[]) stored)[0]);
+        assertTrue(((byte[]) stored).length < mapper.writeValueAsBytes(expectedResponse).length);
+        assertEquals(result, GroupResponse.class.cast(distributedCache.get("DUMMY_KEY_LARGE"))
+                .getResult());
+    }
+
+    @Test
+    public void testGetLegacyStringValue() throws Exception {
+        GroupResponse baseRequest = new GroupResponse(Collections.<String, Object>singletonMap("Hello", "World"));
+        hazelcastInstance.getMap(CACHE_NAME_PREFIX + "TEST")
+                .put("DUMMY_KEY_LEGACY", mapper.writeValueAsString(baseRequest));
+        assertEquals(baseRequest.getResult(), GroupResponse.class.cast(distributedCache.get("DUMMY_KEY_LEGACY"))
+                .getResult());
+    }
+
+    @Test
+    public void testPutIfAbsent() throws Exception {
+        GroupResponse first = new GroupResponse(Collections.<String, Object>singletonMap("Hello", "World"));
+        GroupResponse second = new GroupResponse(Collections.<String, Object>singletonMap("Hello", "Again"));
+        assertTrue(distributedCache.putIfAbsent("DUMMY_KEY_PUT_IF_ABSENT", first));
+        assertFalse(distributedCache.putIfAbsent("DUMMY_KEY_PUT_IF_ABSENT", second));
+        assertEquals(first.getResult(), GroupResponse.class.cast(distributedCache.getIfPresent("DUMMY_KEY_PUT_IF_ABSENT"))
+                .getResult());
+        assertNull(distributedCache.getAsync("INVALID_KEY")
+                .toCompletableFuture()
+                .get());
+    }
+
+    @Test
+    public void testLocalTierServesRepeatedReads() throws Exception {
+        HazelcastConnection hazelcastConnection = Mockito.mock(HazelcastConnection.class);
+        when(hazelcastConnection.getHazelcast()).thenReturn(hazelcastInstance);
+        CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setLocalCacheSize(10);
+        DistributedCache tieredCache = new DistributedCache(hazelcastConnection, "TEST", mapper, cacheConfig);
+        tieredCache.put("DUMMY_KEY_LOCAL", new GroupResponse(Collections.<String, Object>singletonMap("Hello", "World")));
+
+        ActionResponse first = tieredCache.get("DUMMY_KEY_LOCAL");
+        assertSame(first, tieredCache.get("DUMMY_KEY_LOCAL"));
+
+        tieredCache.put("DUMMY_KEY_LOCAL", new GroupResponse(Collections.<String, Object>singletonMap("Hello", "Again")));
+        assertEquals(Collections.singletonMap("Hello", "Again"), GroupResponse.class.cast(
+                tieredCache.get("DUMMY_KEY_LOCAL"))
+                .getResult());
+    }
+
+    @Test
+    public void testOpcodeCacheConfigOverridesDefaults() {
+        CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setTimeToLiveSeconds(15);
+        cacheConfig.setLocalCacheSize(100);
+        OpcodeCacheConfig groupConfig = new OpcodeCacheConfig();
+        groupConfig.setLocalCacheSize(1000);
+        cacheConfig.getOpcodes()
+                .put("group", groupConfig);
+
+        CacheConfig merged = cacheConfig.forOpcode("group");
+        assertEquals(15, merged.getTimeToLiveSeconds());
+        assertEquals(1000, merged.getLocalCacheSize());
+        assertSame(cacheConfig, cacheConfig.forOpcode("histogram"));
+    }
+
+    @Test
+    public void testOpcodeCacheConfigZeroIsAnOverride() {
+        CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setTimeToLiveSeconds(15);
+        cacheConfig.setLocalCacheSize(100);
+        OpcodeCacheConfig queryConfig = new OpcodeCacheConfig();
+        queryConfig.setLocalCacheSize(0);
+        cacheConfig.getOpcodes()
+                .put("query", queryConfig);
+
+        CacheConfig merged = cacheConfig.forOpcode("query");
+        assertEquals(0, merged.getLocalCacheSize());
+        assertEquals(15, merged.getTimeToLiveSeconds());
+    }
 }
@@ -42,6 +42,7 @@ import org.mockito.Mockito;
 import java.util.List;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
@@ -79,6 +80,7 @@ public class DistributedTableMetadataManagerTest {
         objectMapper.registerSubtypes(GroupResponse.class);
 
         this.dataStore = Mockito.mock(DataStore.class);
+        when(dataStore.saveSerialized(any(Table.class), any(Document.class))).thenCallRealMethod();
 
         EmailConfig emailConfig = new EmailConfig();
         emailConfig.setHost("127.0.0.1");
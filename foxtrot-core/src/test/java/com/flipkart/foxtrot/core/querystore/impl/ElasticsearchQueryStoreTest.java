@@ -15,6 +15,7 @@
  */
 package com.flipkart.foxtrot.core.querystore.impl;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,15 +26,18 @@ import com.flipkart.foxtrot.core.TestUtils;
 import com.flipkart.foxtrot.core.cardinality.CardinalityConfig;
 import com.flipkart.foxtrot.core.config.TextNodeRemoverConfiguration;
 import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.flipkart.foxtrot.core.datastore.MultiGetResult;
 import com.flipkart.foxtrot.core.exception.ErrorCode;
 import com.flipkart.foxtrot.core.exception.FoxtrotException;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.querystore.IngestionAckPolicy;
 import com.flipkart.foxtrot.core.querystore.mutator.IndexerEventMutator;
 import com.flipkart.foxtrot.core.querystore.mutator.LargeTextNodeRemover;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
 import com.flipkart.foxtrot.core.table.impl.DistributedTableMetadataManager;
 import com.flipkart.foxtrot.core.table.impl.ElasticsearchTestUtils;
 import com.flipkart.foxtrot.core.table.impl.TableMapStore;
+import com.flipkart.foxtrot.core.util.MetricUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -50,9 +54,12 @@ import org.elasticsearch.action.admin.indices.mapping.get.GetFieldMappingsReques
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.client.RequestOptions;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
 import org.junit.*;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -97,6 +104,10 @@ public class ElasticsearchQueryStoreTest {
     @Before
     public void setUp() throws Exception {
         this.dataStore = Mockito.mock(DataStore.class);
+        // Lenient multi gets and serialized saves go through the stubbed getAll and saves
+        when(dataStore.getAllAvailable(any(Table.class), anyListOf(String.class))).thenCallRealMethod();
+        when(dataStore.saveSerialized(any(Table.class), any(Document.class))).thenCallRealMethod();
+        when(dataStore.saveAllSerialized(any(Table.class), anyListOf(Document.class))).thenCallRealMethod();
 
         HazelcastConnection hazelcastConnection = Mockito.mock(HazelcastConnection.class);
         when(hazelcastConnection.getHazelcast()).thenReturn(hazelcastInstance);
@@ -361,6 +372,72 @@ public class ElasticsearchQueryStoreTest {
         }
     }
 
+    @Test
+    public void testSaveAsyncAckedByQueryStore() throws Exception {
+        Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
+        List<Document> documents = asyncDocuments(table);
+
+        queryStore.saveAsync(TestUtils.TEST_TABLE_NAME, documents, IngestionAckPolicy.QUERY_STORE)
+                .get(10, TimeUnit.SECONDS);
+        // Indexed by the time the save is acknowledged
+        for (Document document : documents) {
+            assertTrue("Id should exist in ES", isIndexed(document));
+        }
+    }
+
+    @Test
+    public void testSaveAsyncAckedByDataStore() throws Exception {
+        Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
+        List<Document> documents = asyncDocuments(table);
+
+        assertTrue(queryStore.saveAsync(TestUtils.TEST_TABLE_NAME, documents, IngestionAckPolicy.DATA_STORE)
+                .isDone());
+        verify(dataStore).saveAllSerialized(table, documents);
+        for (Document document : documents) {
+            await().atMost(10, TimeUnit.SECONDS)
+                    .until(() -> isIndexed(document));
+        }
+    }
+
+    @Test
+    public void testSaveAsyncDataStoreFailureIsRecorded() throws Exception {
+        MetricRegistry metrics = new MetricRegistry();
+        MetricUtil.setup(metrics);
+        Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
+        List<Document> documents = Collections.singletonList(createDummyDocument());
+        doThrow(FoxtrotExceptions.createConnectionException(table, new IOException())).when(dataStore)
+                .saveAll(table, documents);
+        for (IngestionAckPolicy ackPolicy : IngestionAckPolicy.values()) {
+            try {
+                queryStore.saveAsync(TestUtils.TEST_TABLE_NAME, documents, ackPolicy);
+                fail();
+            } catch (FoxtrotException e) {
+                assertEquals(ErrorCode.STORE_CONNECTION_ERROR, e.getCode());
+            }
+        }
+        assertEquals(2, metrics.timer(String.format("com.flipkart.foxtrot.core.action.dataStore.%s.failure",
+                TestUtils.TEST_TABLE_NAME))
+                .getCount());
+    }
+
+    private List<Document> asyncDocuments(Table table) {
+        List<Document> documents = Lists.newArrayList(createDummyDocument(), createDummyDocument());
+        // Version 1 row keys keep the ids documents are indexed under
+        doReturn(documents.stream()
+                .map(document -> TestUtils.translatedDocumentWithRowKeyVersion1(table, document))
+                .collect(Collectors.toList())).when(dataStore)
+                .saveAll(table, documents);
+        return documents;
+    }
+
+    private boolean isIndexed(Document document) throws IOException {
+        return elasticsearchConnection.getClient()
+                .get(new GetRequest(ElasticsearchUtils.getCurrentIndex(TestUtils.TEST_TABLE_NAME,
+                        document.getTimestamp()), ElasticsearchUtils.DOCUMENT_TYPE_NAME, document.getId()),
+                        RequestOptions.DEFAULT)
+                .isExists();
+    }
+
     @Test
     public void testSaveBulkRawKeyVersion2() throws Exception {
         Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
@@ -477,6 +554,35 @@ public class ElasticsearchQueryStoreTest {
         assertEquals(document.getId(), responseDocument.getId());
     }
 
+    @Test
+    public void testGetWithTimeHintCoveringDaysWithoutIndex() throws Exception {
+        Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
+
+        Document document = createDummyDocument();
+        Document translatedDocument = TestUtils.translatedDocumentWithRowKeyVersion1(table, document);
+
+        doReturn(translatedDocument).when(dataStore)
+                .save(table, document);
+        doReturn(translatedDocument).when(dataStore)
+                .get(table, document.getId());
+        doReturn(Collections.singletonList(translatedDocument)).when(dataStore)
+                .getAll(table, Collections.singletonList(document.getId()));
+
+        queryStore.save(TestUtils.TEST_TABLE_NAME, document);
+        elasticsearchConnection.refresh(ElasticsearchUtils.getIndices(TestUtils.TEST_TABLE_NAME));
+
+        Interval timeHint = new Interval(new DateTime().minusDays(3), new DateTime().plusMinutes(1));
+        Document responseDocument = queryStore.get(TestUtils.TEST_TABLE_NAME, document.getId(), timeHint);
+        assertNotNull(responseDocument);
+        assertEquals(document.getId(), responseDocument.getId());
+
+        List<Document> responseDocuments = queryStore.getAll(TestUtils.TEST_TABLE_NAME,
+                Collections.singletonList(document.getId()), timeHint);
+        assertEquals(1, responseDocuments.size());
+        assertEquals(document.getId(), responseDocuments.get(0)
+                .getId());
+    }
+
     @Test
     public void testGetSingleInvalidId() throws Exception {
         Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
@@ -573,6 +679,43 @@ public class ElasticsearchQueryStoreTest {
         }
     }
 
+    @Test
+    public void testGetAllAvailableReportsRequestedIdsOfMissingRows() throws Exception {
+        Table table = tableMetadataManager.get(TestUtils.TEST_TABLE_NAME);
+        List<Document> documents = Lists.newArrayList();
+        List<Document> translatedDocuments = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            Document document = createDummyDocument();
+            documents.add(document);
+            translatedDocuments.add(TestUtils.translatedDocumentWithRowKeyVersion2(table, document));
+        }
+        List<String> translatedIds = translatedDocuments.stream()
+                .map(Document::getId)
+                .collect(Collectors.toList());
+
+        doReturn(ImmutableList.copyOf(translatedDocuments)).when(dataStore)
+                .saveAll(table, ImmutableList.copyOf(documents));
+        doReturn(new MultiGetResult(documents.subList(0, 2), Collections.singletonList(translatedIds.get(2))))
+                .when(dataStore)
+                .getAllAvailable(table, translatedIds);
+
+        queryStore.save(TestUtils.TEST_TABLE_NAME, ImmutableList.copyOf(documents));
+        elasticsearchConnection.refresh(ElasticsearchUtils.getIndices(TestUtils.TEST_TABLE_NAME));
+
+        List<String> ids = documents.stream()
+                .map(Document::getId)
+                .collect(Collectors.toList());
+        MultiGetResult result = queryStore.getAllAvailable(TestUtils.TEST_TABLE_NAME, ids, false);
+        assertEquals(documents.subList(0, 2), result.getDocuments());
+        assertEquals(Collections.singletonList(ids.get(2)), result.getMissingIds());
+        try {
+            queryStore.getAll(TestUtils.TEST_TABLE_NAME, ids);
+            fail();
+        } catch (FoxtrotException e) {
+            assertEquals(ErrorCode.DOCUMENT_NOT_FOUND, e.getCode());
+        }
+    }
+
 
     @Test
     public void testGetBulkInvalidIds() throws Exception {
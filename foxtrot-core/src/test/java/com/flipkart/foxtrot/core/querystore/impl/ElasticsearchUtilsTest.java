@@ -11,6 +11,7 @@ import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
 import com.flipkart.foxtrot.core.common.PeriodSelector;
 import io.dropwizard.util.Duration;
 import org.joda.time.DateTimeZone;
+import org.joda.time.Interval;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -179,6 +180,15 @@ public class ElasticsearchUtilsTest {
         ElasticsearchUtils.setTableNamePrefix(config);
     }
 
+    @Test
+    public void testGetIndicesForLookupInterval() throws Exception {
+        String indexes[] = ElasticsearchUtils.getIndices("test", new Interval(1427997600000L, TEST_CURRENT_TIME));
+        Assert.assertArrayEquals(
+                new String[]{"foxtrot-test-table-02-4-2015", "foxtrot-test-table-03-4-2015", "foxtrot-test-table-04-4-2015"}, indexes);
+        Assert.assertArrayEquals(new String[]{"foxtrot-test-table-*"},
+                ElasticsearchUtils.getIndices("test", new Interval(0L, TEST_CURRENT_TIME)));
+    }
+
     private final static class TestRequest extends ActionRequest {
         private TestRequest() {
             super("test");
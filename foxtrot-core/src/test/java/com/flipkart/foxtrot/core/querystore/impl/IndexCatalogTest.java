@@ -0,0 +1,77 @@
+package com.flipkart.foxtrot.core.querystore.impl;
+
+import com.flipkart.foxtrot.common.Table;
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.common.query.numeric.BetweenFilter;
+import com.flipkart.foxtrot.core.config.IndexCatalogConfig;
+import com.flipkart.foxtrot.core.table.TableMetadataManager;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IndexCatalogTest {
+
+    private final DateTime today = new DateTime().withTimeAtStartOfDay();
+    private final Table table = new Table("test", 30, false, 1);
+    private TableMetadataManager tableMetadataManager;
+    private IndexCatalog indexCatalog;
+
+    @Before
+    public void setUp() {
+        tableMetadataManager = mock(TableMetadataManager.class);
+        when(tableMetadataManager.get("test")).thenReturn(table);
+        indexCatalog = new IndexCatalog(new IndexCatalogConfig(), null, tableMetadataManager, null);
+    }
+
+    @Test
+    public void testMissingAndExpiredIndicesAreDropped() {
+        String[] indices = {index(40), index(3), index(2), index(0)};
+        Assert.assertArrayEquals(indices, indexCatalog.filter("test", indices));
+
+        indexCatalog.update(Collections.singleton(index(2)), Collections.singletonList(table), Collections.emptySet(),
+                System.currentTimeMillis());
+        Assert.assertArrayEquals(new String[]{index(2), index(0)}, indexCatalog.filter("test", indices));
+        verify(tableMetadataManager, never()).get("test");
+
+        indexCatalog.register(index(3));
+        Assert.assertArrayEquals(new String[]{index(3), index(2), index(0)}, indexCatalog.filter("test", indices));
+    }
+
+    @Test
+    public void testRequestOnMissingIndicesHasNoIndices() {
+        indexCatalog.update(Collections.singleton(index(2)), Collections.singletonList(table), Collections.emptySet(),
+                System.currentTimeMillis());
+        Assert.assertFalse(ElasticsearchUtils.hasIndices("test", request(5, 4), indexCatalog));
+        Assert.assertTrue(ElasticsearchUtils.hasIndices("test", request(3, 2), indexCatalog));
+        Assert.assertTrue(ElasticsearchUtils.hasIndices("test", request(1, 0), indexCatalog));
+        Assert.assertArrayEquals(new String[]{index(5), index(4)},
+                ElasticsearchUtils.getIndices("test", new Interval(day(5), day(4) + 1000L), indexCatalog));
+    }
+
+    private CountRequest request(int fromDaysAgo, int toDaysAgo) {
+        CountRequest request = new CountRequest();
+        request.setTable("test");
+        request.setFilters(Collections.<Filter>singletonList(
+                new BetweenFilter("_timestamp", day(fromDaysAgo), day(toDaysAgo) + 1000L, true)));
+        return request;
+    }
+
+    private long day(int daysAgo) {
+        return today.minusDays(daysAgo)
+                .getMillis();
+    }
+
+    private String index(int daysAgo) {
+        return ElasticsearchUtils.getCurrentIndex("test", day(daysAgo));
+    }
+}
@@ -0,0 +1,100 @@
+package com.flipkart.foxtrot.core.querystore.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.common.DocumentMetadata;
+import com.flipkart.foxtrot.core.config.TextNodeRemoverConfiguration;
+import com.flipkart.foxtrot.core.datastore.DocumentSerializer;
+import com.flipkart.foxtrot.core.datastore.SerializedDocument;
+import com.flipkart.foxtrot.core.querystore.mutator.IndexerEventMutator;
+import com.flipkart.foxtrot.core.querystore.mutator.LargeTextNodeRemover;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class IndexSourceWriterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testStreamingMatchesTreeSerialization() throws Exception {
+        Document document = createDocument();
+        IndexSourceWriter streaming = new IndexSourceWriter(mapper, Collections.emptyList());
+        IndexSourceWriter tree = new IndexSourceWriter(mapper, Collections.singletonList(nonStreaming((table, id, node) -> {
+        })));
+
+        JsonNode streamed = mapper.readTree(streaming.write("test", document));
+        Assert.assertEquals(mapper.readTree(tree.write("test", document)), streamed);
+        Assert.assertEquals("abcd", streamed.get(ElasticsearchUtils.DOCUMENT_META_FIELD_NAME)
+                .get("id")
+                .asText());
+        Assert.assertNotNull(streamed.get(ElasticsearchUtils.DOCUMENT_TIME_FIELD_NAME));
+    }
+
+    @Test
+    public void testStreamingLargeTextRemovalMatchesTreeMutation() throws Exception {
+        Document document = createDocument();
+        TextNodeRemoverConfiguration configuration = TextNodeRemoverConfiguration.builder()
+                .blockPercentage(100)
+                .maxAllowedSize(100)
+                .build();
+        LargeTextNodeRemover remover = new LargeTextNodeRemover(mapper, configuration);
+        IndexSourceWriter streaming = new IndexSourceWriter(mapper, Collections.singletonList(remover));
+        IndexSourceWriter tree = new IndexSourceWriter(mapper, Collections.singletonList(nonStreaming(remover)));
+
+        JsonNode streamed = mapper.readTree(streaming.write("test", document));
+        Assert.assertEquals(mapper.readTree(tree.write("test", document)), streamed);
+        Assert.assertFalse(streamed.has("large"));
+        Assert.assertFalse(streamed.get("nested")
+                .has("large"));
+        Assert.assertEquals(1, streamed.get("values")
+                .size());
+        Assert.assertTrue(document.getData()
+                .has("large"));
+    }
+
+    @Test
+    public void testSplicedSourceMatchesStreamedSource() throws Exception {
+        Document document = createDocument();
+        LargeTextNodeRemover inactiveRemover = new LargeTextNodeRemover(mapper, new TextNodeRemoverConfiguration());
+        IndexSourceWriter writer = new IndexSourceWriter(mapper, Collections.singletonList(inactiveRemover));
+        SerializedDocument serializedDocument = new DocumentSerializer(mapper).serialize(document);
+
+        Assert.assertEquals(mapper.readTree(writer.write("test", document)),
+                mapper.readTree(writer.write("test", document, serializedDocument)));
+    }
+
+    @Test
+    public void testSplicedSourceWithEmptyData() throws Exception {
+        Document document = new Document("abcd", 1397658117000L, new DocumentMetadata("abcd", "abcd:test", 1397658117000L),
+                mapper.createObjectNode());
+        IndexSourceWriter writer = new IndexSourceWriter(mapper, Collections.emptyList());
+        SerializedDocument serializedDocument = new DocumentSerializer(mapper).serialize(document);
+
+        JsonNode spliced = mapper.readTree(writer.write("test", document, serializedDocument));
+        Assert.assertEquals(2, spliced.size());
+        Assert.assertEquals(mapper.readTree(writer.write("test", document)), spliced);
+    }
+
+    private IndexerEventMutator nonStreaming(IndexerEventMutator mutator) {
+        return mutator::mutate;
+    }
+
+    private Document createDocument() {
+        String large = StringUtils.repeat("*", 500);
+        ObjectNode data = mapper.createObjectNode()
+                .put("small", "value")
+                .put("large", large)
+                .put("number", 42);
+        data.putObject("nested")
+                .put("large", large)
+                .put("flag", true);
+        data.putArray("values")
+                .add("ok")
+                .add(large);
+        return new Document("abcd", 1397658117000L, new DocumentMetadata("abcd", "abcd:test", 1397658117000L), data);
+    }
+}
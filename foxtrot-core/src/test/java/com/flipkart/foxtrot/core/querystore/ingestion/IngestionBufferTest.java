@@ -0,0 +1,124 @@
+package com.flipkart.foxtrot.core.querystore.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.foxtrot.common.Document;
+import com.flipkart.foxtrot.core.config.IngestionBufferConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class IngestionBufferTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<List<PendingDocument>> flushed = Collections.synchronizedList(new ArrayList<>());
+    private IngestionBuffer buffer;
+
+    @After
+    public void tearDown() {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void testFlushOnBatchSize() throws Exception {
+        buffer = new IngestionBuffer(config(3, 60_000), (table, batch) -> {
+            flushed.add(batch);
+            batch.forEach(PendingDocument::succeed);
+        });
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(buffer.submit("test", document("id" + i)));
+        }
+        for (CompletableFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(1, flushed.size());
+        Assert.assertEquals(3, flushed.get(0)
+                .size());
+    }
+
+    @Test
+    public void testFlushOnLinger() throws Exception {
+        buffer = new IngestionBuffer(config(100, 10), (table, batch) -> {
+            flushed.add(batch);
+            batch.forEach(PendingDocument::succeed);
+        });
+        buffer.submit("test", document("id1"))
+                .get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(1, flushed.size());
+    }
+
+    @Test
+    public void testPerDocumentFailure() throws Exception {
+        buffer = new IngestionBuffer(config(2, 60_000), (table, batch) -> {
+            batch.get(0)
+                    .succeed();
+            batch.get(1)
+                    .fail(new IllegalStateException("rejected"));
+        });
+        CompletableFuture<Void> first = buffer.submit("test", document("id1"));
+        CompletableFuture<Void> second = buffer.submit("test", document("id2"));
+        first.get(5, TimeUnit.SECONDS);
+        try {
+            second.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testHandlerExceptionFailsWholeBatch() throws Exception {
+        buffer = new IngestionBuffer(config(1, 60_000), (table, batch) -> {
+            throw new IllegalStateException("store down");
+        });
+        try {
+            buffer.submit("test", document("id1"))
+                    .get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testCloseFlushesPendingAndRejectsLaterSaves() throws Exception {
+        buffer = new IngestionBuffer(config(100, 60_000), (table, batch) -> {
+            flushed.add(batch);
+            batch.forEach(PendingDocument::succeed);
+        });
+        CompletableFuture<Void> pending = buffer.submit("test", document("id1"));
+        buffer.close();
+        Assert.assertTrue(pending.isDone());
+        pending.get();
+        Assert.assertEquals(1, flushed.size());
+        try {
+            buffer.submit("test", document("id2"))
+                    .get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private IngestionBufferConfig config(int maxBatchSize, long lingerTimeInMillis) {
+        IngestionBufferConfig config = new IngestionBufferConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(maxBatchSize);
+        config.setLingerTimeInMillis(lingerTimeInMillis);
+        return config;
+    }
+
+    private Document document(String id) {
+        return new Document(id, System.currentTimeMillis(), mapper.createObjectNode()
+                .put("key", "value"));
+    }
+}
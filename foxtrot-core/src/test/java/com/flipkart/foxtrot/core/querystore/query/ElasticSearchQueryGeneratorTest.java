@@ -0,0 +1,90 @@
+package com.flipkart.foxtrot.core.querystore.query;
+
+import com.flipkart.foxtrot.common.count.CountRequest;
+import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.common.query.datetime.LastFilter;
+import com.flipkart.foxtrot.common.query.numeric.BetweenFilter;
+import com.flipkart.foxtrot.common.query.numeric.GreaterEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
+import com.flipkart.foxtrot.core.querystore.actions.Utils;
+import com.flipkart.foxtrot.core.util.ElasticsearchQueryUtils;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ElasticSearchQueryGeneratorTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Test
+    public void testRelativeWindowIsWidenedToGranularity() {
+        List<QueryBuilder> clauses = generate(new ElasticSearchQueryGenerator(MINUTE),
+                new LastFilter("_timestamp", 20 * MINUTE + 1, Duration.minutes(10), null));
+        Assert.assertEquals(10 * MINUTE, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(21 * MINUTE, ((RangeQueryBuilder) clauses.get(0)).to());
+    }
+
+    @Test
+    public void testExplicitBoundsAreKept() {
+        List<QueryBuilder> clauses = generate(new ElasticSearchQueryGenerator(MINUTE),
+                new GreaterEqualFilter("_timestamp", 10 * MINUTE + 1234, true),
+                new LessThanFilter("_timestamp", 20 * MINUTE + 1, true));
+        Assert.assertEquals(10 * MINUTE + 1234, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(20 * MINUTE + 1, ((RangeQueryBuilder) clauses.get(1)).to());
+
+        clauses = generate(new ElasticSearchQueryGenerator(MINUTE),
+                new BetweenFilter("_timestamp", 10 * MINUTE + 1234, 20 * MINUTE + 1, true));
+        Assert.assertEquals(10 * MINUTE + 1234, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(20 * MINUTE + 1, ((RangeQueryBuilder) clauses.get(0)).to());
+    }
+
+    @Test
+    public void testNoRoundingByDefault() {
+        List<QueryBuilder> clauses = generate(new ElasticSearchQueryGenerator(),
+                new LastFilter("_timestamp", 20 * MINUTE + 1, Duration.minutes(10), null));
+        Assert.assertEquals(10 * MINUTE + 1, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(20 * MINUTE + 1, ((RangeQueryBuilder) clauses.get(0)).to());
+    }
+
+    @Test
+    public void testUnalignedBucketTailIsNotWidened() {
+        QueryNormalizationConfig config = QueryNormalizationConfig.builder()
+                .enabled(true)
+                .temporalGranularityInSeconds(3600)
+                .build();
+        // Buckets of a +05:30 server start at half past the hour
+        long cachedUntil = 100 * HOUR + 30 * MINUTE;
+        long now = 101 * HOUR + 15 * MINUTE;
+        CountRequest request = new CountRequest();
+        request.setFilters(Collections.<Filter>singletonList(
+                new LastFilter("_timestamp", now, Duration.hours(6), null)));
+
+        List<QueryBuilder> clauses = clauses(ElasticsearchQueryUtils.translateAggregationFilter(request,
+                Utils.bucketRangeFilters("_timestamp", cachedUntil, null), config));
+        Assert.assertEquals(cachedUntil, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(now, ((RangeQueryBuilder) clauses.get(1)).to());
+
+        clauses = clauses(ElasticsearchQueryUtils.translateAggregationFilter(request, Collections.emptyList(),
+                config));
+        Assert.assertEquals(95 * HOUR, ((RangeQueryBuilder) clauses.get(0)).from());
+        Assert.assertEquals(102 * HOUR, ((RangeQueryBuilder) clauses.get(0)).to());
+    }
+
+    private static List<QueryBuilder> generate(ElasticSearchQueryGenerator generator, Filter... filters) {
+        return clauses(generator.genFilter(Arrays.asList(filters)));
+    }
+
+    private static List<QueryBuilder> clauses(QueryBuilder query) {
+        return ((BoolQueryBuilder) ((ConstantScoreQueryBuilder) query).innerQuery()).filter();
+    }
+}
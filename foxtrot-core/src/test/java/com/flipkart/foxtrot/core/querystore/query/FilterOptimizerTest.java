@@ -0,0 +1,84 @@
+package com.flipkart.foxtrot.core.querystore.query;
+
+import com.flipkart.foxtrot.common.query.Filter;
+import com.flipkart.foxtrot.common.query.general.EqualsFilter;
+import com.flipkart.foxtrot.common.query.general.InFilter;
+import com.flipkart.foxtrot.common.query.general.NotEqualsFilter;
+import com.flipkart.foxtrot.common.query.numeric.BetweenFilter;
+import com.flipkart.foxtrot.common.query.numeric.GreaterEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.GreaterThanFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessEqualFilter;
+import com.flipkart.foxtrot.common.query.numeric.LessThanFilter;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class FilterOptimizerTest {
+
+    @Test
+    public void testStackedTemporalRangesAreMerged() {
+        List<Filter> filters = Arrays.asList(new EqualsFilter("os", "android"),
+                new BetweenFilter("_timestamp", 100L, 500L, true),
+                new GreaterEqualFilter("_timestamp", 200L, true),
+                new LessThanFilter("_timestamp", 400L, true),
+                new LessThanFilter("_timestamp", 450L, true),
+                new EqualsFilter("os", "android"));
+
+        List<Filter> optimized = FilterOptimizer.optimize(filters);
+        Assert.assertEquals(Arrays.asList(new EqualsFilter("os", "android"),
+                new GreaterEqualFilter("_timestamp", 200L, true),
+                new LessThanFilter("_timestamp", 400L, true)), optimized);
+
+        String query = new ElasticSearchQueryGenerator().genFilter(filters)
+                .toString();
+        String unoptimizedQuery = new UnoptimizedQueryGenerator().genFilter(filters)
+                .toString();
+        Assert.assertTrue(query.length() < unoptimizedQuery.length());
+    }
+
+    @Test
+    public void testNonTemporalRangesAreKept() {
+        List<Filter> filters = Arrays.asList(new GreaterThanFilter("value", 10, false),
+                new LessThanFilter("value", 5, false));
+        Assert.assertEquals(filters, FilterOptimizer.optimize(filters));
+        Assert.assertFalse(FilterOptimizer.isUnsatisfiable(filters));
+    }
+
+    @Test
+    public void testContradictions() {
+        Assert.assertTrue(FilterOptimizer.isUnsatisfiable(Arrays.asList(
+                new GreaterEqualFilter("_timestamp", 200L, true),
+                new LessEqualFilter("_timestamp", 100L, true))));
+        Assert.assertTrue(FilterOptimizer.isUnsatisfiable(Arrays.asList(
+                new GreaterThanFilter("_timestamp", 100L, true),
+                new LessEqualFilter("_timestamp", 100L, true))));
+        Assert.assertTrue(FilterOptimizer.isUnsatisfiable(Arrays.asList(new EqualsFilter("os", "ios"),
+                new NotEqualsFilter("os", "ios"))));
+        Assert.assertTrue(FilterOptimizer.isUnsatisfiable(Arrays.asList(
+                new InFilter("os", Arrays.<Object>asList("ios", "android")), new NotEqualsFilter("os", "ios"),
+                new NotEqualsFilter("os", "android"))));
+
+        Assert.assertFalse(FilterOptimizer.isUnsatisfiable(Arrays.asList(
+                new GreaterEqualFilter("_timestamp", 100L, true),
+                new LessEqualFilter("_timestamp", 100L, true))));
+        Assert.assertFalse(FilterOptimizer.isUnsatisfiable(Arrays.asList(new EqualsFilter("os", "ios"),
+                new EqualsFilter("os", "android"))));
+    }
+
+    /**
+     * Translates every filter as it is, the way queries were generated before filters were optimized
+     */
+    private static class UnoptimizedQueryGenerator extends ElasticSearchQueryGenerator {
+        @Override
+        public QueryBuilder genFilter(List<Filter> filters) {
+            for (Filter filter : filters) {
+                filter.accept(this);
+            }
+            return super.genFilter(Collections.emptyList());
+        }
+    }
+}
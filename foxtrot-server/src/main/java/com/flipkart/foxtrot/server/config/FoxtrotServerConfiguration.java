@@ -18,7 +18,16 @@ package com.flipkart.foxtrot.server.config;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.flipkart.foxtrot.core.cardinality.CardinalityConfig;
 import com.flipkart.foxtrot.core.common.DataDeletionManagerConfig;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
+import com.flipkart.foxtrot.core.config.DocumentCacheConfig;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.config.IndexCatalogConfig;
+import com.flipkart.foxtrot.core.config.IngestionBufferConfig;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import com.flipkart.foxtrot.core.config.QueryExecutorConfig;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
 import com.flipkart.foxtrot.core.config.TextNodeRemoverConfiguration;
 import com.flipkart.foxtrot.core.datastore.impl.hbase.HbaseConfig;
 import com.flipkart.foxtrot.core.email.EmailConfig;
@@ -88,6 +97,33 @@ public class FoxtrotServerConfiguration extends Configuration {
     @Valid
     private ElasticsearchTuningConfig elasticsearchTuningConfig;
 
+    @Valid
+    private IngestionBufferConfig ingestionBufferConfig;
+
+    @Valid
+    private DocumentCacheConfig documentCacheConfig;
+
+    @Valid
+    private QueryExecutorConfig queryExecutorConfig;
+
+    @Valid
+    private QueryCoalescingConfig queryCoalescingConfig;
+
+    @Valid
+    private RefreshAheadConfig refreshAheadConfig;
+
+    @Valid
+    private QuerySchedulerConfig querySchedulerConfig;
+
+    @Valid
+    private BucketCacheConfig bucketCacheConfig;
+
+    @Valid
+    private QueryNormalizationConfig queryNormalizationConfig;
+
+    @Valid
+    private IndexCatalogConfig indexCatalogConfig;
+
     @Valid
     private String swaggerHost;
 
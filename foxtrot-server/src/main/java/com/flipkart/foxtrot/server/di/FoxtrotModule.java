@@ -8,8 +8,18 @@ import com.flipkart.foxtrot.core.cache.CacheManager;
 import com.flipkart.foxtrot.core.cache.impl.DistributedCacheFactory;
 import com.flipkart.foxtrot.core.cardinality.CardinalityConfig;
 import com.flipkart.foxtrot.core.common.DataDeletionManagerConfig;
+import com.flipkart.foxtrot.core.config.BucketCacheConfig;
+import com.flipkart.foxtrot.core.config.DocumentCacheConfig;
 import com.flipkart.foxtrot.core.config.ElasticsearchTuningConfig;
+import com.flipkart.foxtrot.core.config.IndexCatalogConfig;
+import com.flipkart.foxtrot.core.config.IngestionBufferConfig;
+import com.flipkart.foxtrot.core.config.QueryCoalescingConfig;
+import com.flipkart.foxtrot.core.config.QueryExecutorConfig;
+import com.flipkart.foxtrot.core.config.QueryNormalizationConfig;
+import com.flipkart.foxtrot.core.config.QuerySchedulerConfig;
+import com.flipkart.foxtrot.core.config.RefreshAheadConfig;
 import com.flipkart.foxtrot.core.datastore.DataStore;
+import com.flipkart.foxtrot.core.datastore.impl.cache.CachedDataStore;
 import com.flipkart.foxtrot.core.datastore.impl.hbase.HBaseDataStore;
 import com.flipkart.foxtrot.core.datastore.impl.hbase.HBaseUtil;
 import com.flipkart.foxtrot.core.datastore.impl.hbase.HbaseConfig;
@@ -24,6 +34,7 @@ import com.flipkart.foxtrot.core.internalevents.impl.GuavaInternalEventBus;
 import com.flipkart.foxtrot.core.jobs.optimization.EsIndexOptimizationConfig;
 import com.flipkart.foxtrot.core.querystore.ActionExecutionObserver;
 import com.flipkart.foxtrot.core.querystore.EventPublisherActionExecutionObserver;
+import com.flipkart.foxtrot.core.querystore.QueryCoalescer;
 import com.flipkart.foxtrot.core.querystore.QueryStore;
 import com.flipkart.foxtrot.core.querystore.handlers.MetricRecorder;
 import com.flipkart.foxtrot.core.querystore.handlers.ResponseCacheUpdater;
@@ -47,6 +58,7 @@ import com.flipkart.foxtrot.server.jobs.consolehistory.ConsoleHistoryConfig;
 import com.flipkart.foxtrot.server.jobs.sessioncleanup.SessionCleanupConfig;
 import com.flipkart.foxtrot.sql.fqlstore.FqlStoreService;
 import com.flipkart.foxtrot.sql.fqlstore.FqlStoreServiceImpl;
+import com.foxtrot.flipkart.translator.DocumentTranslator;
 import com.foxtrot.flipkart.translator.config.SegregationConfiguration;
 import com.foxtrot.flipkart.translator.config.TranslatorConfig;
 import com.google.common.cache.CacheBuilderSpec;
@@ -59,6 +71,7 @@ import io.dropwizard.auth.Authenticator;
 import io.dropwizard.auth.Authorizer;
 import io.dropwizard.auth.CachingAuthenticator;
 import io.dropwizard.auth.CachingAuthorizer;
+import io.dropwizard.lifecycle.setup.ExecutorServiceBuilder;
 import io.dropwizard.server.ServerFactory;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.Duration;
@@ -77,6 +90,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -89,8 +103,6 @@ public class FoxtrotModule extends AbstractModule {
     protected void configure() {
         bind(TableMetadataManager.class)
                 .to(DistributedTableMetadataManager.class);
-        bind(DataStore.class)
-                .to(HBaseDataStore.class);
         bind(QueryStore.class)
                 .to(ElasticsearchQueryStore.class);
         bind(FqlStoreService.class)
@@ -226,13 +238,24 @@ public class FoxtrotModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public ExecutorService provideGlobalExecutorService(Environment environment) {
-        return environment.lifecycle()
+    public QueryExecutorConfig provideQueryExecutorConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getQueryExecutorConfig())
+                ? configuration.getQueryExecutorConfig()
+                : new QueryExecutorConfig();
+    }
+
+    @Provides
+    @Singleton
+    public ExecutorService provideGlobalExecutorService(Environment environment, QueryExecutorConfig config) {
+        ExecutorServiceBuilder builder = environment.lifecycle()
                 .executorService("query-executor-%s")
-                .minThreads(20)
-                .maxThreads(30)
-                .keepAliveTime(Duration.seconds(30))
-                .build();
+                .minThreads(config.getMinThreads())
+                .maxThreads(Math.max(config.getMinThreads(), config.getMaxThreads()))
+                .keepAliveTime(Duration.seconds(config.getKeepAliveTimeInSeconds()));
+        if (config.getMaxQueueSize() > 0) {
+            builder.workQueue(new ArrayBlockingQueue<>(config.getMaxQueueSize()));
+        }
+        return builder.build();
     }
 
     @Provides
@@ -345,4 +368,86 @@ public class FoxtrotModule extends AbstractModule {
                 : new ElasticsearchTuningConfig();
     }
 
+    @Provides
+    @Singleton
+    public DocumentCacheConfig provideDocumentCacheConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getDocumentCacheConfig())
+                ? configuration.getDocumentCacheConfig()
+                : new DocumentCacheConfig();
+    }
+
+    @Provides
+    @Singleton
+    public DataStore provideDataStore(
+            HBaseDataStore hBaseDataStore,
+            DocumentTranslator documentTranslator,
+            DocumentCacheConfig documentCacheConfig) {
+        return documentCacheConfig.isEnabled()
+                ? new CachedDataStore(hBaseDataStore, documentTranslator, documentCacheConfig)
+                : hBaseDataStore;
+    }
+
+    @Provides
+    @Singleton
+    public IngestionBufferConfig provideIngestionBufferConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getIngestionBufferConfig())
+                ? configuration.getIngestionBufferConfig()
+                : new IngestionBufferConfig();
+    }
+
+    @Provides
+    @Singleton
+    public QueryCoalescingConfig provideQueryCoalescingConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getQueryCoalescingConfig())
+                ? configuration.getQueryCoalescingConfig()
+                : new QueryCoalescingConfig();
+    }
+
+    @Provides
+    @Singleton
+    public QueryCoalescer provideQueryCoalescer(
+            QueryCoalescingConfig queryCoalescingConfig,
+            HazelcastConnection hazelcastConnection) {
+        return new QueryCoalescer(queryCoalescingConfig, hazelcastConnection);
+    }
+
+    @Provides
+    @Singleton
+    public RefreshAheadConfig provideRefreshAheadConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getRefreshAheadConfig())
+                ? configuration.getRefreshAheadConfig()
+                : new RefreshAheadConfig();
+    }
+
+    @Provides
+    @Singleton
+    public QuerySchedulerConfig provideQuerySchedulerConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getQuerySchedulerConfig())
+                ? configuration.getQuerySchedulerConfig()
+                : new QuerySchedulerConfig();
+    }
+
+    @Provides
+    @Singleton
+    public QueryNormalizationConfig provideQueryNormalizationConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getQueryNormalizationConfig())
+                ? configuration.getQueryNormalizationConfig()
+                : new QueryNormalizationConfig();
+    }
+
+    @Provides
+    @Singleton
+    public BucketCacheConfig provideBucketCacheConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getBucketCacheConfig())
+                ? configuration.getBucketCacheConfig()
+                : new BucketCacheConfig();
+    }
+
+    @Provides
+    @Singleton
+    public IndexCatalogConfig provideIndexCatalogConfig(FoxtrotServerConfiguration configuration) {
+        return Objects.nonNull(configuration.getIndexCatalogConfig())
+                ? configuration.getIndexCatalogConfig()
+                : new IndexCatalogConfig();
+    }
 }
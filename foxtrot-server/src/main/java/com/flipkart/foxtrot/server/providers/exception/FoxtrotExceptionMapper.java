@@ -21,6 +21,7 @@ import java.util.Map;
 public class FoxtrotExceptionMapper implements ExceptionMapper<FoxtrotException> {
 
     private static final Logger logger = LoggerFactory.getLogger(FoxtrotExceptionMapper.class);
+    private static final int TOO_MANY_REQUESTS = 429;
 
     private final ObjectMapper mapper;
 
@@ -53,6 +54,10 @@ public class FoxtrotExceptionMapper implements ExceptionMapper<FoxtrotException>
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity(response)
                         .build();
+            case QUERY_REJECTED:
+                return Response.status(TOO_MANY_REQUESTS)
+                        .entity(response)
+                        .build();
             case TABLE_ALREADY_EXISTS:
                 return Response.status(Response.Status.CONFLICT)
                         .entity(response)
@@ -39,10 +39,13 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
+import java.util.concurrent.CompletionException;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -76,6 +79,27 @@ public class AnalyticsResource {
         return queryExecutor.execute(request);
     }
 
+    @POST
+    @Path("/nonblocking")
+    @Timed
+    @ApiOperation("runNonBlocking")
+    @RolesAllowed(FoxtrotRole.Value.QUERY)
+    public void runNonBlocking(
+            @Auth final UserPrincipal userPrincipal,
+            @Valid final ActionRequest request,
+            @Suspended final AsyncResponse asyncResponse) {
+        queryExecutor.executeNonBlocking(request)
+                .whenComplete((response, error) -> {
+                    if (null == error) {
+                        asyncResponse.resume(response);
+                    } else {
+                        asyncResponse.resume(error instanceof CompletionException && null != error.getCause()
+                                             ? error.getCause()
+                                             : error);
+                    }
+                });
+    }
+
     @POST
     @Path("/async")
     @Timed
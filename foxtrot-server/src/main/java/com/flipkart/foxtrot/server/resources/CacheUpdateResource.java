@@ -16,6 +16,7 @@ package com.flipkart.foxtrot.server.resources;/**
 
 import com.codahale.metrics.annotation.Timed;
 import com.flipkart.foxtrot.core.cardinality.CardinalityCalculationRunnable;
+import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
 import com.flipkart.foxtrot.core.table.TableMetadataManager;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -30,6 +31,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /***
  Created by nitish.goyal on 17/08/18
@@ -57,7 +59,11 @@ public class CacheUpdateResource {
     @POST
     @ApiOperation("updateCardinalityCache")
     public Response updateCardinalityCache() {
-        executorService.submit(new CardinalityCalculationRunnable(tableMetadataManager));
+        try {
+            executorService.submit(new CardinalityCalculationRunnable(tableMetadataManager));
+        } catch (RejectedExecutionException e) {
+            throw FoxtrotExceptions.createQueryRejectedException(null, "executor queue full");
+        }
         return Response.ok()
                 .build();
     }
@@ -19,11 +19,14 @@ import com.codahale.metrics.annotation.Timed;
 import com.collections.CollectionUtils;
 import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.core.auth.FoxtrotRole;
+import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.querystore.IngestionAckPolicy;
 import com.flipkart.foxtrot.core.querystore.QueryStore;
 import com.foxtrot.flipkart.translator.TableTranslator;
 import com.google.common.collect.Lists;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.joda.time.Interval;
 
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Inject;
@@ -31,12 +34,17 @@ import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * User: Santanu Sinha (santanu.sinha@flipkart.com)
@@ -90,13 +98,42 @@ public class DocumentResource {
                 .build();
     }
 
+    @POST
+    @Path("/bulk/async")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Timed
+    @RolesAllowed(FoxtrotRole.Value.INGEST)
+    @ApiOperation("Save list of documents without blocking a request thread on indexing")
+    public void saveDocumentsAsync(@PathParam("table") String table,
+                                   @QueryParam("ack") @DefaultValue("QUERY_STORE") final IngestionAckPolicy ackPolicy,
+                                   @Valid final List<Document> documents,
+                                   @Suspended final AsyncResponse asyncResponse) {
+        Map<String, List<Document>> tableVsDocuments = getTableVsDocuments(table, documents);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<String, List<Document>> entry : CollectionUtils.nullSafeSet(tableVsDocuments.entrySet())) {
+            futures.add(queryStore.saveAsync(entry.getKey(), entry.getValue(), ackPolicy));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        asyncResponse.resume(throwable instanceof CompletionException && throwable.getCause() != null
+                                             ? throwable.getCause()
+                                             : throwable);
+                    } else {
+                        asyncResponse.resume(Response.created(URI.create("/" + table))
+                                .build());
+                    }
+                });
+    }
+
     @GET
     @Path("/{id}")
     @Timed
     @RolesAllowed(FoxtrotRole.Value.QUERY)
     @ApiOperation("Get Document")
-    public Response getDocument(@PathParam("table") final String table, @PathParam("id") @NotNull final String id) {
-        return Response.ok(queryStore.get(table, id))
+    public Response getDocument(@PathParam("table") final String table, @PathParam("id") @NotNull final String id,
+                                @QueryParam("from") final Long from, @QueryParam("to") final Long to) {
+        return Response.ok(queryStore.get(table, id, timeHint(table, from, to)))
                 .build();
     }
 
@@ -104,11 +141,26 @@ public class DocumentResource {
     @Timed
     @RolesAllowed(FoxtrotRole.Value.QUERY)
     @ApiOperation("Get Documents")
-    public Response getDocuments(@PathParam("table") final String table, @QueryParam("id") @NotNull final List<String> ids) {
-        return Response.ok(queryStore.getAll(table, ids))
+    public Response getDocuments(@PathParam("table") final String table, @QueryParam("id") @NotNull final List<String> ids,
+                                 @QueryParam("from") final Long from, @QueryParam("to") final Long to) {
+        return Response.ok(queryStore.getAll(table, ids, timeHint(table, from, to)))
                 .build();
     }
 
+    /**
+     * Optional ingestion time range of the requested documents, used to narrow down the indices searched for them
+     */
+    private Interval timeHint(String table, Long from, Long to) {
+        if (null == from) {
+            return null;
+        }
+        long end = null == to ? System.currentTimeMillis() : to;
+        if (end < from) {
+            throw FoxtrotExceptions.createBadRequestException(table, "from must not be after to");
+        }
+        return new Interval(from, end);
+    }
+
 
     private Map<String, List<Document>> getTableVsDocuments(String table, List<Document> documents) {
         Map<String, List<Document>> tableVsDocuments = new HashMap<>();
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.flipkart.foxtrot.common.Document;
 import com.flipkart.foxtrot.core.TestUtils;
 import com.flipkart.foxtrot.core.exception.FoxtrotExceptions;
+import com.flipkart.foxtrot.core.querystore.IngestionAckPolicy;
 import com.flipkart.foxtrot.core.querystore.impl.ElasticsearchUtils;
 import com.flipkart.foxtrot.server.ResourceTestUtils;
 import com.foxtrot.flipkart.translator.TableTranslator;
@@ -34,10 +35,14 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 
 /**
@@ -178,6 +183,64 @@ public class DocumentResourceTest extends FoxtrotResourceTest {
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
     }
 
+    @Test
+    public void testSaveDocumentsAsyncAckedByQueryStore() throws Exception {
+        List<Document> documents = asyncDocuments();
+        Response response = resources
+                .target(String.format("/v1/document/%s/bulk/async", TestUtils.TEST_TABLE_NAME))
+                .queryParam("ack", IngestionAckPolicy.QUERY_STORE)
+                .request()
+                .post(Entity.json(documents));
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        getElasticsearchConnection().refresh(ElasticsearchUtils.getIndices(TestUtils.TEST_TABLE_NAME));
+        for (Document document : documents) {
+            compare(document, getQueryStore().get(TestUtils.TEST_TABLE_NAME, document.getId()));
+        }
+    }
+
+    @Test
+    public void testSaveDocumentsAsyncAckedByDataStore() throws Exception {
+        List<Document> documents = asyncDocuments();
+        Response response = resources
+                .target(String.format("/v1/document/%s/bulk/async", TestUtils.TEST_TABLE_NAME))
+                .queryParam("ack", IngestionAckPolicy.DATA_STORE)
+                .request()
+                .post(Entity.json(documents));
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        // Indexing may still be in flight
+        await().atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    getElasticsearchConnection().refresh(ElasticsearchUtils.getIndices(TestUtils.TEST_TABLE_NAME));
+                    for (Document document : documents) {
+                        compare(document, getQueryStore().get(TestUtils.TEST_TABLE_NAME, document.getId()));
+                    }
+                });
+    }
+
+    @Test
+    public void testSaveDocumentsAsyncInternalError() throws Exception {
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(FoxtrotExceptions.createExecutionException("dummy", new IOException()));
+        doReturn(failed).when(getQueryStore())
+                .saveAsync(anyString(), anyListOf(Document.class), Matchers.any(IngestionAckPolicy.class));
+        Response response = resources
+                .target(String.format("/v1/document/%s/bulk/async", TestUtils.TEST_TABLE_NAME))
+                .request()
+                .post(Entity.json(asyncDocuments()));
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+    }
+
+    private List<Document> asyncDocuments() {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            documents.add(new Document(UUID.randomUUID()
+                    .toString(), System.currentTimeMillis(), getMapper().getNodeFactory()
+                    .objectNode()
+                    .put("D", "data")));
+        }
+        return documents;
+    }
+
     @Test
     public void testSaveDocumentsNullDocuments() throws Exception {
         Response response = resources